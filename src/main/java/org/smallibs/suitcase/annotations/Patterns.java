@@ -0,0 +1,51 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests the generation of deconstruction patterns for a class or an interface. A
+ * pattern factory is generated for the annotated type when it's a concrete class and
+ * for each concrete subtype declared as a member or permitted by a sealed hierarchy.
+ * <p>
+ * The components of a deconstructed class are its instance fields in declaration order.
+ * Private fields are read using a non private accessor named like the field or prefixed
+ * by get or is.
+ * <p>
+ * Factories are named like the deconstructed classes so these classes must have
+ * distinct simple names; a clash is reported as a compilation error.
+ * <p>
+ * The generation is done by the org.smallibs.suitcase.annotations.processor.PatternsProcessor
+ * which must be explicitly declared as an annotation processor of the compilation.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Patterns {
+
+    /**
+     * @return the simple name of the generated class, the annotated type name followed by Patterns by default
+     */
+    String value() default "";
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.annotations.processor;
+
+import org.smallibs.suitcase.annotations.Patterns;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor generating the deconstruction patterns requested by {@link Patterns}.
+ * <p>
+ * For each deconstructed class a pattern is built once and exposed by a factory named
+ * like the class. The class check is done by a type guard and each component is read
+ * by a generated accessor using a direct field access or method call. The pattern is a
+ * Case1 to Case6 when the class has up to 6 components and a CaseN otherwise.
+ */
+@SupportedAnnotationTypes("org.smallibs.suitcase.annotations.Patterns")
+public class PatternsProcessor extends AbstractProcessor {
+
+    private static final int MAXIMUM_TYPED_ARITY = 6;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement root : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(Patterns.class))) {
+            final List<Node> nodes = nodes(root);
+            if (nodes != null) {
+                try {
+                    generate(root, nodes);
+                } catch (IOException e) {
+                    error(root, "Cannot generate patterns: " + e.getMessage());
+                }
+            }
+        }
+
+        return true;
+    }
+
+    // =================================================================================================================
+    // Deconstructed classes
+    // =================================================================================================================
+
+    /**
+     * @param root The annotated type
+     * @return the deconstructed classes or null if one of them cannot be deconstructed
+     */
+    private List<Node> nodes(TypeElement root) {
+        final Set<TypeElement> candidates = new LinkedHashSet<>();
+        final Deque<TypeElement> pending = new ArrayDeque<>();
+        pending.add(root);
+
+        while (!pending.isEmpty()) {
+            final TypeElement type = pending.poll();
+            if (candidates.add(type)) {
+                pending.addAll(ElementFilter.typesIn(type.getEnclosedElements()));
+                pending.addAll(permittedSubclasses(type));
+            }
+        }
+
+        final TypeMirror rootType = processingEnv.getTypeUtils().erasure(root.asType());
+        final List<Node> nodes = new ArrayList<>();
+        boolean valid = true;
+
+        for (TypeElement type : candidates) {
+            if (isConcreteClass(type) && processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type.asType()), rootType)) {
+                final List<String> accesses = new ArrayList<>();
+                final List<String> types = new ArrayList<>();
+
+                for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                    if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)) {
+                        continue;
+                    }
+
+                    final String access = access(type, field);
+                    if (access == null) {
+                        error(field, "No accessible accessor for " + field.getSimpleName());
+                        valid = false;
+                    } else {
+                        accesses.add(access);
+                        types.add(typeOf(type, field.asType()));
+                    }
+                }
+
+                nodes.add(new Node(type, typeOf(type, type.asType()), accesses, types));
+            }
+        }
+
+        return valid && distinct(nodes) ? nodes : null;
+    }
+
+    /**
+     * Generated names are built from the simple class names so member classes of
+     * distinct enclosing types may clash.
+     *
+     * @param nodes The deconstructed classes
+     * @return true if generated names are distinct; false otherwise
+     */
+    private boolean distinct(List<Node> nodes) {
+        final Map<String, Node> factories = new HashMap<>();
+        final Map<String, Node> constants = new HashMap<>();
+        boolean valid = true;
+
+        for (Node node : nodes) {
+            final Node clash = factories.containsKey(node.name()) ? factories.get(node.name()) : constants.get(node.constant());
+            if (clash != null) {
+                error(node.type, "Pattern " + node.name() + " clashes with the pattern of " + clash.type.getQualifiedName());
+                valid = false;
+            } else {
+                factories.put(node.name(), node);
+                constants.put(node.constant(), node);
+            }
+        }
+
+        return valid;
+    }
+
+    private static boolean isConcreteClass(TypeElement type) {
+        return (type.getKind() == ElementKind.CLASS || type.getKind().name().equals("RECORD"))
+                && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && !type.getModifiers().contains(Modifier.PRIVATE);
+    }
+
+    /**
+     * @param type  The deconstructed class
+     * @param field The component field
+     * @return the expression reading the field or null if it cannot be read
+     */
+    private String access(TypeElement type, VariableElement field) {
+        final String name = field.getSimpleName().toString();
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return name;
+        }
+
+        final String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String accessor : new String[]{name, "get" + suffix, "is" + suffix}) {
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(accessor)
+                        && method.getParameters().isEmpty()
+                        && !method.getModifiers().contains(Modifier.PRIVATE)
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                    return accessor + "()";
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param type The deconstructed class
+     * @param used The type used by the class
+     * @return the source representation of the used type, erased when the class is generic
+     */
+    private String typeOf(TypeElement type, TypeMirror used) {
+        final TypeMirror mirror = type.getTypeParameters().isEmpty() ? used : processingEnv.getTypeUtils().erasure(used);
+        if (mirror.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) mirror).getQualifiedName().toString();
+        }
+
+        return mirror.toString();
+    }
+
+    /**
+     * Sealed hierarchies are only available since Java 17 so the permitted subclasses
+     * are retrieved reflectively.
+     *
+     * @param type The type
+     * @return the permitted subclasses if any
+     */
+    @SuppressWarnings("unchecked")
+    private static List<TypeElement> permittedSubclasses(TypeElement type) {
+        try {
+            final Method method = TypeElement.class.getMethod("getPermittedSubclasses");
+            final List<TypeElement> subclasses = new ArrayList<>();
+            for (TypeMirror subclass : (List<? extends TypeMirror>) method.invoke(type)) {
+                subclasses.add((TypeElement) ((DeclaredType) subclass).asElement());
+            }
+            return subclasses;
+        } catch (ReflectiveOperationException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    // =================================================================================================================
+    // Generation
+    // =================================================================================================================
+
+    private void generate(TypeElement root, List<Node> nodes) throws IOException {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(root).getQualifiedName().toString();
+        final String value = root.getAnnotation(Patterns.class).value();
+        final String simpleName = value.isEmpty() ? root.getSimpleName() + "Patterns" : value;
+        final String name = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(name, root).openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+
+            out.println("import org.smallibs.suitcase.cases.core.*;");
+            out.println();
+            out.println("import java.util.function.Function;");
+            out.println();
+            out.println("/**");
+            out.println(" * Patterns deconstructing {@link " + root.getQualifiedName() + "}, generated by " + getClass().getName());
+            out.println(" */");
+            out.println("public final class " + simpleName + " {");
+
+            final String matched = typeOf(root, root.asType());
+            for (Node node : nodes) {
+                out.println();
+                out.println("    private static final " + node.patternType(matched) + " " + node.constant() + " = " + node.pattern(matched) + ";");
+            }
+
+            out.println();
+            out.println("    private " + simpleName + "() {");
+            out.println("    }");
+
+            for (Node node : nodes) {
+                out.println();
+                out.println("    /**");
+                out.println("     * @return the pattern deconstructing {@link " + node.type.getQualifiedName() + "}");
+                out.println("     */");
+                out.println("    public static " + node.patternType(matched) + " " + node.name() + "() {");
+                out.println("        return " + node.constant() + ";");
+                out.println("    }");
+            }
+
+            for (Node node : nodes) {
+                if (!node.accesses.isEmpty()) {
+                    out.println();
+                    node.accessor(out);
+                }
+            }
+
+            out.println("}");
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * Deconstructed class description
+     */
+    private static final class Node {
+        private final TypeElement type;
+        private final String typeName;
+        private final List<String> accesses;
+        private final List<String> types;
+
+        private Node(TypeElement type, String typeName, List<String> accesses, List<String> types) {
+            this.type = type;
+            this.typeName = typeName;
+            this.accesses = accesses;
+            this.types = types;
+        }
+
+        private String name() {
+            return type.getSimpleName().toString();
+        }
+
+        private String constant() {
+            return name().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+        }
+
+        private String accessorName() {
+            return name() + "Accessor";
+        }
+
+        private String patternType(String matched) {
+            final int arity = accesses.size();
+            if (arity == 0) {
+                return "Case0<" + matched + ", Boolean>";
+            } else if (arity > MAXIMUM_TYPED_ARITY) {
+                return "CaseN<" + matched + ", " + matched + ">";
+            } else {
+                return "Case" + arity + "<" + matched + ", " + matched + ", " + String.join(", ", types) + ">";
+            }
+        }
+
+        private String pattern(String matched) {
+            final int arity = accesses.size();
+            if (arity == 0) {
+                return "TypeCase.<" + matched + ", " + typeName + ">of(" + typeName + ".class)";
+            }
+
+            final StringBuilder pattern = new StringBuilder();
+            pattern.append("new ").append(arity > MAXIMUM_TYPED_ARITY ? "CaseN" : "Case" + arity).append("<>(TypeCase.guard(").append(typeName).append(".class)");
+            for (int index = 0; index < arity; index++) {
+                pattern.append(", new ").append(accessorName()).append("<>(").append(index).append(")");
+            }
+            return pattern.append(")").toString();
+        }
+
+        private void accessor(PrintWriter out) {
+            out.println("    private static final class " + accessorName() + "<P, E> implements Function<P, E> {");
+            out.println("        private final int index;");
+            out.println();
+            out.println("        private " + accessorName() + "(int index) {");
+            out.println("            this.index = index;");
+            out.println("        }");
+            out.println();
+            out.println("        @Override");
+            out.println("        @SuppressWarnings(\"unchecked\")");
+            out.println("        public E apply(P object) {");
+            out.println("            final " + typeName + " node = (" + typeName + ") object;");
+            out.println("            switch (index) {");
+            for (int index = 0; index < accesses.size(); index++) {
+                out.println("                case " + index + ":");
+                out.println("                    return (E) (Object) node." + accesses.get(index) + ";");
+            }
+            out.println("                default:");
+            out.println("                    throw new IndexOutOfBoundsException(String.valueOf(index));");
+            out.println("            }");
+            out.println("        }");
+            out.println("    }");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases;
+
+import org.smallibs.suitcase.utils.Pair;
+
+import java.util.Arrays;
+
+/**
+ * The Captures defines the sink used by the allocation free matching protocol. On success
+ * a case pushes exactly one value, i.e. its result value, and on failure it leaves the sink
+ * unchanged. The ignoring sink discards every value and is used when results are not needed.
+ */
+
+public class Captures {
+
+    private static final Captures IGNORE = new Captures(0) {
+        @Override
+        public void push(Object value) {
+            // Ignored
+        }
+
+        @Override
+        public <V> V pop() {
+            return null;
+        }
+
+        @Override
+        public void pair() {
+            // Ignored
+        }
+
+        @Override
+        public void reset(int size) {
+            // Ignored
+        }
+
+        @Override
+        public boolean isIgnored() {
+            return true;
+        }
+    };
+
+    private static final ThreadLocal<Captures> LOCAL = ThreadLocal.withInitial(() -> new Captures(16));
+
+    private Object[] values;
+    private int size;
+
+    /**
+     * The constructor
+     *
+     * @param capacity The initial capacity
+     */
+    private Captures(int capacity) {
+        this.values = new Object[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * @return a fresh sink
+     */
+    public static Captures create() {
+        return new Captures(8);
+    }
+
+    /**
+     * @return the sink dedicated to the current thread
+     */
+    public static Captures local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * @return the sink discarding every value
+     */
+    public static Captures ignore() {
+        return IGNORE;
+    }
+
+    public void push(Object value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+
+        values[size++] = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V pop() {
+        final Object value = values[--size];
+        values[size] = null;
+        return (V) value;
+    }
+
+    /**
+     * Pops the two last values and pushes their pair.
+     */
+    public void pair() {
+        final Object second = pop();
+        final Object first = pop();
+        push(new Pair<>(first, second));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drops every value pushed above the given size.
+     *
+     * @param size The size to be restored
+     */
+    public void reset(int size) {
+        while (this.size > size) {
+            pop();
+        }
+    }
+
+    public boolean isIgnored() {
+        return false;
+    }
+}
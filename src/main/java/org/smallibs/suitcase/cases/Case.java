@@ -18,21 +18,245 @@
 
 package org.smallibs.suitcase.cases;
 
+import org.smallibs.suitcase.utils.Tuple3;
+import org.smallibs.suitcase.utils.Tuple4;
+import org.smallibs.suitcase.utils.Tuple5;
+import org.smallibs.suitcase.utils.Tuple6;
+
 import java.util.Optional;
 
 public interface Case<T, R> {
 
     Optional<R> unapply(T t);
 
+    /**
+     * Allocation free matching protocol. On success the case pushes its result value
+     * in the capture sink; on failure the sink is left unchanged. The default
+     * implementation relies on the optional based protocol.
+     *
+     * @param t        The object to be matched
+     * @param captures The capture sink
+     * @return true if the object is accepted
+     */
+    default boolean unapply(T t, Captures captures) {
+        final Optional<R> result = unapply(t);
+        if (result.isPresent()) {
+            final R value = result.get();
+            captures.push(value instanceof Result ? ((Result<?>) value).resultValue() : value);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Type guard of the case. When present an object can only be accepted if its runtime
+     * class is assignable from the returned type.
+     *
+     * @return the guard type if any
+     */
+    default Optional<Class<?>> typeGuard() {
+        return Optional.empty();
+    }
+
+    /**
+     * Structural description of the case used by rule set analysis.
+     *
+     * @return the case shape
+     */
+    default Shape shape() {
+        return Shape.unknown();
+    }
+
     interface WithoutCapture<T, R> extends Case<T, Result.WithoutCapture<R>> {
         static <T, R> WithoutCapture<T, R> adapt(Case<T, Result.WithoutCapture<R>> aCase) {
-            return aCase::unapply;
+            if (aCase instanceof WithoutCapture) {
+                return (WithoutCapture<T, R>) aCase;
+            }
+
+            return new WithoutCapture<T, R>() {
+                @Override
+                public Optional<Result.WithoutCapture<R>> unapply(T t) {
+                    return aCase.unapply(t);
+                }
+
+                @Override
+                public boolean unapply(T t, Captures captures) {
+                    return aCase.unapply(t, captures);
+                }
+
+                @Override
+                public Optional<Class<?>> typeGuard() {
+                    return aCase.typeGuard();
+                }
+
+                @Override
+                public Shape shape() {
+                    return aCase.shape();
+                }
+            };
         }
     }
 
     interface WithCapture<T, R> extends Case<T, Result.WithCapture<R>> {
         static <T, R> WithCapture<T, R> adapt(Case<T, Result.WithCapture<R>> aCase) {
-            return aCase::unapply;
+            if (aCase instanceof WithCapture) {
+                return (WithCapture<T, R>) aCase;
+            }
+
+            return new WithCapture<T, R>() {
+                @Override
+                public Optional<Result.WithCapture<R>> unapply(T t) {
+                    return aCase.unapply(t);
+                }
+
+                @Override
+                public boolean unapply(T t, Captures captures) {
+                    return aCase.unapply(t, captures);
+                }
+
+                @Override
+                public Optional<Class<?>> typeGuard() {
+                    return aCase.typeGuard();
+                }
+
+                @Override
+                public Shape shape() {
+                    return aCase.shape();
+                }
+            };
+        }
+    }
+
+    /**
+     * Case capturing 3 values in a flat tuple
+     */
+    interface WithCapture3<T, C1, C2, C3> extends WithCapture<T, Tuple3<C1, C2, C3>> {
+        static <T, C1, C2, C3> WithCapture3<T, C1, C2, C3> adapt(Case<T, Result.WithCapture<Tuple3<C1, C2, C3>>> aCase) {
+            if (aCase instanceof WithCapture3) {
+                return (WithCapture3<T, C1, C2, C3>) aCase;
+            }
+
+            return new WithCapture3<T, C1, C2, C3>() {
+                @Override
+                public Optional<Result.WithCapture<Tuple3<C1, C2, C3>>> unapply(T t) {
+                    return aCase.unapply(t);
+                }
+
+                @Override
+                public boolean unapply(T t, Captures captures) {
+                    return aCase.unapply(t, captures);
+                }
+
+                @Override
+                public Optional<Class<?>> typeGuard() {
+                    return aCase.typeGuard();
+                }
+
+                @Override
+                public Shape shape() {
+                    return aCase.shape();
+                }
+            };
+        }
+    }
+
+    /**
+     * Case capturing 4 values in a flat tuple
+     */
+    interface WithCapture4<T, C1, C2, C3, C4> extends WithCapture<T, Tuple4<C1, C2, C3, C4>> {
+        static <T, C1, C2, C3, C4> WithCapture4<T, C1, C2, C3, C4> adapt(Case<T, Result.WithCapture<Tuple4<C1, C2, C3, C4>>> aCase) {
+            if (aCase instanceof WithCapture4) {
+                return (WithCapture4<T, C1, C2, C3, C4>) aCase;
+            }
+
+            return new WithCapture4<T, C1, C2, C3, C4>() {
+                @Override
+                public Optional<Result.WithCapture<Tuple4<C1, C2, C3, C4>>> unapply(T t) {
+                    return aCase.unapply(t);
+                }
+
+                @Override
+                public boolean unapply(T t, Captures captures) {
+                    return aCase.unapply(t, captures);
+                }
+
+                @Override
+                public Optional<Class<?>> typeGuard() {
+                    return aCase.typeGuard();
+                }
+
+                @Override
+                public Shape shape() {
+                    return aCase.shape();
+                }
+            };
+        }
+    }
+
+    /**
+     * Case capturing 5 values in a flat tuple
+     */
+    interface WithCapture5<T, C1, C2, C3, C4, C5> extends WithCapture<T, Tuple5<C1, C2, C3, C4, C5>> {
+        static <T, C1, C2, C3, C4, C5> WithCapture5<T, C1, C2, C3, C4, C5> adapt(Case<T, Result.WithCapture<Tuple5<C1, C2, C3, C4, C5>>> aCase) {
+            if (aCase instanceof WithCapture5) {
+                return (WithCapture5<T, C1, C2, C3, C4, C5>) aCase;
+            }
+
+            return new WithCapture5<T, C1, C2, C3, C4, C5>() {
+                @Override
+                public Optional<Result.WithCapture<Tuple5<C1, C2, C3, C4, C5>>> unapply(T t) {
+                    return aCase.unapply(t);
+                }
+
+                @Override
+                public boolean unapply(T t, Captures captures) {
+                    return aCase.unapply(t, captures);
+                }
+
+                @Override
+                public Optional<Class<?>> typeGuard() {
+                    return aCase.typeGuard();
+                }
+
+                @Override
+                public Shape shape() {
+                    return aCase.shape();
+                }
+            };
+        }
+    }
+
+    /**
+     * Case capturing 6 values in a flat tuple
+     */
+    interface WithCapture6<T, C1, C2, C3, C4, C5, C6> extends WithCapture<T, Tuple6<C1, C2, C3, C4, C5, C6>> {
+        static <T, C1, C2, C3, C4, C5, C6> WithCapture6<T, C1, C2, C3, C4, C5, C6> adapt(Case<T, Result.WithCapture<Tuple6<C1, C2, C3, C4, C5, C6>>> aCase) {
+            if (aCase instanceof WithCapture6) {
+                return (WithCapture6<T, C1, C2, C3, C4, C5, C6>) aCase;
+            }
+
+            return new WithCapture6<T, C1, C2, C3, C4, C5, C6>() {
+                @Override
+                public Optional<Result.WithCapture<Tuple6<C1, C2, C3, C4, C5, C6>>> unapply(T t) {
+                    return aCase.unapply(t);
+                }
+
+                @Override
+                public boolean unapply(T t, Captures captures) {
+                    return aCase.unapply(t, captures);
+                }
+
+                @Override
+                public Optional<Class<?>> typeGuard() {
+                    return aCase.typeGuard();
+                }
+
+                @Override
+                public Shape shape() {
+                    return aCase.shape();
+                }
+            };
         }
     }
 
@@ -18,14 +18,29 @@
 
 package org.smallibs.suitcase.cases;
 
+/**
+ * Result of a successful match on the Optional based protocol. Results without value
+ * are shared; other results carry a value and are allocated on each success. Matchers
+ * use the Captures protocol which creates no result at all.
+ *
+ * @param <R> The result value type
+ */
 public abstract class Result<R> {
 
+    /**
+     * Shared results denoting a null value
+     */
+    private static final WithoutCapture<?> NULL = new WithoutCapture<>(null);
+    private static final WithCapture<?> NULL_CAPTURE = new WithCapture<>(null);
+
+    @SuppressWarnings("unchecked")
     public static <R> WithoutCapture<R> success(R term) {
-        return new WithoutCapture<>(term);
+        return term == null ? (WithoutCapture<R>) NULL : new WithoutCapture<>(term);
     }
 
+    @SuppressWarnings("unchecked")
     public static <C> WithCapture<C> successWithCapture(C result) {
-        return new WithCapture<>(result);
+        return result == null ? (WithCapture<C>) NULL_CAPTURE : new WithCapture<>(result);
     }
 
     private final R capturedObject;
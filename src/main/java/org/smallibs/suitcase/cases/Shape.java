@@ -0,0 +1,342 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The Shape is a structural description of a case used to compare cases without
+ * matching any object. Comparisons are conservative: when a property cannot be proven
+ * the answer is false.
+ * <p>
+ * A type shape describes the objects accepted by a type guard i.e. objects which runtime
+ * class is the given type or one of its superclasses. Since any type guard accepts
+ * instances of Object, two type shapes are never disjoint. Products
+ * describe cases deconstructing objects with extractors. Two products can only be
+ * compared component by component when they rely on the same extractors.
+ */
+
+public abstract class Shape {
+
+    private static final Shape ANY = new Any();
+    private static final Shape UNKNOWN = new Unknown();
+
+    private Shape() {
+    }
+
+    /**
+     * @return the shape of a case accepting any object
+     */
+    public static Shape any() {
+        return ANY;
+    }
+
+    /**
+     * @return the shape of a case which cannot be analyzed
+     */
+    public static Shape unknown() {
+        return UNKNOWN;
+    }
+
+    /**
+     * @param value The constant
+     * @return the shape of a case accepting objects equal to the constant
+     */
+    public static Shape constant(Object value) {
+        return new Constant(value);
+    }
+
+    /**
+     * @param type The type
+     * @return the shape of a case accepting objects which runtime class is the given type or one of its superclasses
+     */
+    public static Shape type(Class<?> type) {
+        return new Type(type);
+    }
+
+    /**
+     * @param guard      The shape of the objects which can be deconstructed
+     * @param extractors The functions used to deconstruct an object
+     * @param components The shapes of the deconstructed values
+     * @return the shape of a case deconstructing objects
+     */
+    public static Shape product(Shape guard, List<?> extractors, List<Shape> components) {
+        if (extractors.size() != components.size()) {
+            throw new IllegalArgumentException("each component requires an extractor");
+        }
+
+        return new Product(guard, extractors.toArray(), components.toArray(new Shape[components.size()]));
+    }
+
+    /**
+     * @param shape Another shape
+     * @return true if it is proven that each object accepted by the given shape is accepted by this one
+     */
+    public abstract boolean covers(Shape shape);
+
+    /**
+     * @param type A runtime class
+     * @return true if it is proven that each object of the given runtime class is accepted
+     */
+    public abstract boolean covers(Class<?> type);
+
+    /**
+     * @param shape Another shape
+     * @return true if it is proven that no object can be accepted by both shapes
+     */
+    public final boolean isDisjoint(Shape shape) {
+        return this.disjoint(shape) || shape.disjoint(this);
+    }
+
+    abstract boolean disjoint(Shape shape);
+
+    /**
+     * @param value A constant
+     * @return true if the constant can only be equal to objects of the same runtime class
+     */
+    private static boolean isValue(Object value) {
+        return value instanceof String || value instanceof Enum || value instanceof Boolean ||
+                value instanceof Character || value instanceof Byte || value instanceof Short ||
+                value instanceof Integer || value instanceof Long || value instanceof Float ||
+                value instanceof Double || value instanceof Class;
+    }
+
+    // =================================================================================================================
+    // Shape implementations
+    // =================================================================================================================
+
+    private static final class Any extends Shape {
+        @Override
+        public boolean covers(Shape shape) {
+            return true;
+        }
+
+        @Override
+        public boolean covers(Class<?> type) {
+            return true;
+        }
+
+        @Override
+        boolean disjoint(Shape shape) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "Any";
+        }
+    }
+
+    private static final class Unknown extends Shape {
+        @Override
+        public boolean covers(Shape shape) {
+            return false;
+        }
+
+        @Override
+        public boolean covers(Class<?> type) {
+            return false;
+        }
+
+        @Override
+        boolean disjoint(Shape shape) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "?";
+        }
+    }
+
+    private static final class Constant extends Shape {
+        private final Object value;
+
+        private Constant(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean covers(Shape shape) {
+            return shape instanceof Constant && Objects.deepEquals(value, ((Constant) shape).value);
+        }
+
+        @Override
+        public boolean covers(Class<?> type) {
+            return false;
+        }
+
+        @Override
+        boolean disjoint(Shape shape) {
+            if (shape instanceof Constant) {
+                return !Objects.deepEquals(value, ((Constant) shape).value);
+            } else if (shape instanceof Type) {
+                return value == null || isValue(value) && !value.getClass().isAssignableFrom(((Type) shape).type);
+            } else if (shape instanceof Product) {
+                return isDisjoint(((Product) shape).guard);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return value == null ? "Null" : "Constant(" + value + ")";
+        }
+    }
+
+    private static final class Type extends Shape {
+        private final Class<?> type;
+
+        private Type(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean covers(Shape shape) {
+            if (shape instanceof Type) {
+                return type == ((Type) shape).type;
+            } else if (shape instanceof Constant) {
+                final Object value = ((Constant) shape).value;
+                return value != null && isValue(value) && value.getClass() == type;
+            } else if (shape instanceof Product) {
+                return covers(((Product) shape).guard);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean covers(Class<?> type) {
+            return this.type == type;
+        }
+
+        @Override
+        boolean disjoint(Shape shape) {
+            if (shape instanceof Product) {
+                return isDisjoint(((Product) shape).guard);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return type.getSimpleName();
+        }
+    }
+
+    private static final class Product extends Shape {
+        private final Shape guard;
+        private final Object[] extractors;
+        private final Shape[] components;
+
+        private Product(Shape guard, Object[] extractors, Shape[] components) {
+            this.guard = guard;
+            this.extractors = extractors;
+            this.components = components;
+        }
+
+        @Override
+        public boolean covers(Shape shape) {
+            if (isIrrefutable()) {
+                return guard.covers(shape);
+            }
+
+            if (!isComparable(shape)) {
+                return false;
+            }
+
+            final Product product = (Product) shape;
+            if (!guard.covers(product.guard)) {
+                return false;
+            }
+
+            for (int index = 0; index < components.length; index++) {
+                if (!components[index].covers(product.components[index])) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean covers(Class<?> type) {
+            return isIrrefutable() && guard.covers(type);
+        }
+
+        @Override
+        boolean disjoint(Shape shape) {
+            if (guard.isDisjoint(shape)) {
+                return true;
+            }
+
+            if (shape instanceof Product && guard.isDisjoint(((Product) shape).guard)) {
+                return true;
+            }
+
+            if (isComparable(shape)) {
+                final Product product = (Product) shape;
+                for (int index = 0; index < components.length; index++) {
+                    if (components[index].isDisjoint(product.components[index])) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private boolean isIrrefutable() {
+            for (Shape component : components) {
+                if (!component.covers(ANY)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isComparable(Shape shape) {
+            if (!(shape instanceof Product)) {
+                return false;
+            }
+
+            final Object[] extractors = ((Product) shape).extractors;
+            if (this.extractors.length != extractors.length) {
+                return false;
+            }
+
+            for (int index = 0; index < extractors.length; index++) {
+                if (this.extractors[index] != extractors[index]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return guard + Arrays.toString(components);
+        }
+    }
+}
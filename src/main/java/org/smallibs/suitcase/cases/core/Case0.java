@@ -18,8 +18,10 @@
 
 package org.smallibs.suitcase.cases.core;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case.WithoutCapture;
 import org.smallibs.suitcase.cases.Result;
+import org.smallibs.suitcase.cases.Shape;
 
 import java.util.Optional;
 import java.util.function.Function;
@@ -41,8 +43,31 @@ public class Case0<P, R> {
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public Optional<Result.WithoutCapture<R>> unapply(P p) {
-            return predicate.apply(p).flatMap(r -> Optional.of(Result.success(r)));
+            final Object r = Predicates.apply(predicate, p);
+            return r == Predicates.MISMATCH ? Optional.empty() : Optional.of(Result.success((R) r));
+        }
+
+        @Override
+        public boolean unapply(P p, Captures captures) {
+            final Object r = Predicates.apply(predicate, p);
+            if (r == Predicates.MISMATCH) {
+                return false;
+            }
+
+            captures.push(r);
+            return true;
+        }
+
+        @Override
+        public Optional<Class<?>> typeGuard() {
+            return TypeGuard.typeOf(predicate);
+        }
+
+        @Override
+        public Shape shape() {
+            return Predicates.shapeOf(predicate);
         }
     }
 }
@@ -18,13 +18,17 @@
 
 package org.smallibs.suitcase.cases.core;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Case.WithCapture;
 import org.smallibs.suitcase.cases.Case.WithoutCapture;
+import org.smallibs.suitcase.cases.Shape;
 
 import java.util.Optional;
 import java.util.function.Function;
 
+import static java.util.Collections.singletonList;
+
 public class Case1<P, R, E> {
 
     private final Function<P, Optional<R>> predicate;
@@ -54,5 +58,22 @@ public class Case1<P, R, E> {
         public Optional<C> unapply(P e) {
             return predicate.apply(e).flatMap(r -> aCase.unapply(compute.apply(r)));
         }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean unapply(P e, Captures captures) {
+            final Object r = Predicates.apply(predicate, e);
+            return r != Predicates.MISMATCH && aCase.unapply(compute.apply((R) r), captures);
+        }
+
+        @Override
+        public Optional<Class<?>> typeGuard() {
+            return TypeGuard.typeOf(predicate);
+        }
+
+        @Override
+        public Shape shape() {
+            return Shape.product(Predicates.shapeOf(predicate), singletonList(compute), singletonList(aCase.shape()));
+        }
     }
 }
\ No newline at end of file
@@ -18,15 +18,18 @@
 
 package org.smallibs.suitcase.cases.core;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Case.WithCapture;
 import org.smallibs.suitcase.cases.Case.WithoutCapture;
+import org.smallibs.suitcase.cases.Shape;
 import org.smallibs.suitcase.utils.Functions.Function2;
 import org.smallibs.suitcase.utils.Pair;
 
 import java.util.Optional;
 import java.util.function.Function;
 
+import static java.util.Arrays.asList;
 import static org.smallibs.suitcase.cases.Result.success;
 import static org.smallibs.suitcase.cases.Result.successWithCapture;
 
@@ -45,6 +48,8 @@ public class Case2<P, R, E1, E2> {
     public <C1, C2> WithoutCapture<P, Pair<C1, C2>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2) {
         return WithoutCapture.adapt(new Pattern<>(
                 (c1, c2) -> success(new Pair<>(c1.resultValue(), c2.resultValue())),
+                true,
+                true,
                 aCase1,
                 aCase2));
     }
@@ -52,6 +57,8 @@ public class Case2<P, R, E1, E2> {
     public <C1, C2> WithCapture<P, C1> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2) {
         return WithCapture.adapt(new Pattern<>(
                 (c1, c2) -> c1,
+                true,
+                false,
                 aCase1,
                 aCase2)
         );
@@ -60,6 +67,8 @@ public class Case2<P, R, E1, E2> {
     public <C1, C2> WithCapture<P, C2> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2) {
         return WithCapture.adapt(new Pattern<>(
                 (c1, c2) -> c2,
+                false,
+                true,
                 aCase1,
                 aCase2)
         );
@@ -68,18 +77,63 @@ public class Case2<P, R, E1, E2> {
     public <C1, C2> WithCapture<P, Pair<C1, C2>> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2) {
         return WithCapture.adapt(new Pattern<>(
                 (c1, c2) -> successWithCapture(new Pair<>(c1.resultValue(), c2.resultValue())),
+                true,
+                true,
                 aCase1,
                 aCase2)
         );
     }
 
+    /**
+     * Case2 dedicated to pair deconstruction. It's used by cases with a greater arity.
+     *
+     * @param <E1> The first element type
+     * @param <E2> The second element type
+     * @return a pair case
+     */
+    static <E1, E2> Case2<Pair<E1, E2>, Pair<E1, E2>, E1, E2> product() {
+        return new Case2<>(Predicates.any(), p -> p._1, p -> p._2);
+    }
+
     public class Pattern<C1, C2, C> implements Case<P, C> {
         private final Function2<C1, C2, C> combination;
+        private final boolean combined;
+        private final boolean keep1;
+        private final boolean keep2;
         private final Case<E1, C1> aCase1;
         private final Case<E2, C2> aCase2;
 
+        /**
+         * The constructor. Since the combination result cannot be derived from the
+         * captured values, the combination is applied on the results of both cases.
+         *
+         * @param combination The result combination
+         * @param aCase1      The first case
+         * @param aCase2      The second case
+         */
         public Pattern(Function2<C1, C2, C> combination, Case<E1, C1> aCase1, Case<E2, C2> aCase2) {
+            this(combination, true, true, true, aCase1, aCase2);
+        }
+
+        /**
+         * The constructor used by built-in combinations which captured values are
+         * the first result, the second result or the pair of both results.
+         *
+         * @param combination The result combination
+         * @param keep1       True if the combination relies on the first result
+         * @param keep2       True if the combination relies on the second result
+         * @param aCase1      The first case
+         * @param aCase2      The second case
+         */
+        private Pattern(Function2<C1, C2, C> combination, boolean keep1, boolean keep2, Case<E1, C1> aCase1, Case<E2, C2> aCase2) {
+            this(combination, false, keep1, keep2, aCase1, aCase2);
+        }
+
+        private Pattern(Function2<C1, C2, C> combination, boolean combined, boolean keep1, boolean keep2, Case<E1, C1> aCase1, Case<E2, C2> aCase2) {
             this.combination = combination;
+            this.combined = combined;
+            this.keep1 = keep1;
+            this.keep2 = keep2;
             this.aCase1 = aCase1;
             this.aCase2 = aCase2;
         }
@@ -91,5 +145,45 @@ public class Case2<P, R, E1, E2> {
                             aCase2.unapply(compute2.apply(e)).map(r2 -> combination.apply(r1, r2))
                     ));
         }
+
+        @Override
+        public boolean unapply(P e, Captures captures) {
+            if (combined && !captures.isIgnored()) {
+                return Case.super.unapply(e, captures);
+            }
+
+            if (Predicates.apply(predicate, e) == Predicates.MISMATCH) {
+                return false;
+            }
+
+            final Captures captures1 = keep1 ? captures : Captures.ignore();
+            if (!aCase1.unapply(compute1.apply(e), captures1)) {
+                return false;
+            }
+
+            final Captures captures2 = keep2 ? captures : Captures.ignore();
+            if (!aCase2.unapply(compute2.apply(e), captures2)) {
+                if (keep1) {
+                    captures.pop();
+                }
+                return false;
+            }
+
+            if (keep1 && keep2) {
+                captures.pair();
+            }
+
+            return true;
+        }
+
+        @Override
+        public Optional<Class<?>> typeGuard() {
+            return TypeGuard.typeOf(predicate);
+        }
+
+        @Override
+        public Shape shape() {
+            return Shape.product(Predicates.shapeOf(predicate), asList(compute1, compute2), asList(aCase1.shape(), aCase2.shape()));
+        }
     }
 }
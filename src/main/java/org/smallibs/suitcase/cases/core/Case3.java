@@ -18,115 +18,65 @@
 
 package org.smallibs.suitcase.cases.core;
 
+import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Case.WithCapture;
+import org.smallibs.suitcase.cases.Case.WithCapture3;
 import org.smallibs.suitcase.cases.Case.WithoutCapture;
-import org.smallibs.suitcase.cases.Result;
 import org.smallibs.suitcase.utils.Pair;
+import org.smallibs.suitcase.utils.Tuple3;
 
 import java.util.Optional;
 import java.util.function.Function;
 
-;
-
 public class Case3<P, R, E1, E2, E3> {
 
     private final Function<P, Optional<R>> predicate;
-    private final Function<P, E1> compute1;
-    private final Function<P, E2> compute2;
-    private final Function<P, E3> compute3;
+    private final Function<?, ?>[] computes;
 
     public Case3(Function<P, Optional<R>> predicate, Function<P, E1> compute1, Function<P, E2> compute2, Function<P, E3> compute3) {
         this.predicate = predicate;
-        this.compute1 = compute1;
-        this.compute2 = compute2;
-        this.compute3 = compute3;
+        this.computes = new Function<?, ?>[]{compute1, compute2, compute3};
     }
 
-    public <C1, C2, C3> WithoutCapture<P, Pair<C1, Pair<C2, C3>>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3) {
-        final Case2<P, R, E1, Pair<E2, E3>> case2 =
-                new Case2<>(predicate, compute1, (p -> new Pair<>(compute2.apply(p), compute3.apply(p))));
-
-        final WithoutCapture<Pair<E2, E3>, Pair<C2, C3>> capture = e2e3 ->
-                aCase2.unapply(e2e3._1).
-                        flatMap(c2 -> aCase3.unapply(e2e3._2).
-                                map(c3 -> Result.success(new Pair<>(c2.resultValue(), c3.resultValue()))));
-
-        return case2.$(aCase1, capture);
+    public <C1, C2, C3> WithoutCapture<P, Tuple3<C1, C2, C3>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3) {
+        return WithoutCapture.adapt(pattern(0b000, aCase1, aCase2, aCase3));
     }
 
     public <C1, C2, C3> WithCapture<P, C1> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3) {
-        final Case2<P, R, E1, Pair<E2, E3>> case2 =
-                new Case2<>(predicate, compute1, (p -> new Pair<>(compute2.apply(p), compute3.apply(p))));
-
-        final WithoutCapture<Pair<E2, E3>, Pair<C2, C3>> capture = e2e3 ->
-                aCase2.unapply(e2e3._1).
-                        flatMap(c2 -> aCase3.unapply(e2e3._2).
-                                map(c3 -> Result.success(new Pair<>(c2.resultValue(), c3.resultValue()))));
-
-        return case2.$(aCase1, capture);
+        return WithCapture.adapt(pattern(0b001, aCase1, aCase2, aCase3));
     }
 
     public <C1, C2, C3> WithCapture<P, C2> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3) {
-        final Case2<P, R, E1, Pair<E2, E3>> case2 =
-                new Case2<>(predicate, compute1, (p -> new Pair<>(compute2.apply(p), compute3.apply(p))));
-
-        final WithCapture<Pair<E2, E3>, C2> capture = e2e3 ->
-                aCase2.unapply(e2e3._1).flatMap(c2 -> aCase3.unapply(e2e3._2).map(c3 -> c2));
-
-        return case2.$(aCase1, capture);
+        return WithCapture.adapt(pattern(0b010, aCase1, aCase2, aCase3));
     }
 
     public <C1, C2, C3> WithCapture<P, C3> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3) {
-        final Case2<P, R, E1, Pair<E2, E3>> case2 =
-                new Case2<>(predicate, compute1, (p -> new Pair<>(compute2.apply(p), compute3.apply(p))));
-
-        final WithCapture<Pair<E2, E3>, C3> capture = e2e3 ->
-                aCase2.unapply(e2e3._1).flatMap(c2 -> aCase3.unapply(e2e3._2));
-
-        return case2.$(aCase1, capture);
+        return WithCapture.adapt(pattern(0b100, aCase1, aCase2, aCase3));
     }
 
     public <C1, C2, C3> WithCapture<P, Pair<C1, C2>> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3) {
-        final Case2<P, R, E1, Pair<E2, E3>> case2 =
-                new Case2<>(predicate, compute1, (p -> new Pair<>(compute2.apply(p), compute3.apply(p))));
-
-        final WithCapture<Pair<E2, E3>, C2> capture = e2e3 ->
-                aCase2.unapply(e2e3._1).flatMap(c2 -> aCase3.unapply(e2e3._2).map(c3 -> c2));
-
-        return case2.$(aCase1, capture);
+        return WithCapture.adapt(pattern(0b011, aCase1, aCase2, aCase3));
     }
 
     public <C1, C2, C3> WithCapture<P, Pair<C1, C3>> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3) {
-        final Case2<P, R, E1, Pair<E2, E3>> case2 =
-                new Case2<>(predicate, compute1, (p -> new Pair<>(compute2.apply(p), compute3.apply(p))));
-
-        final WithCapture<Pair<E2, E3>, C3> capture = e2e3 ->
-                aCase2.unapply(e2e3._1).flatMap(c2 -> aCase3.unapply(e2e3._2));
-
-        return case2.$(aCase1, capture);
+        return WithCapture.adapt(pattern(0b101, aCase1, aCase2, aCase3));
     }
 
     public <C1, C2, C3> WithCapture<P, Pair<C2, C3>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3) {
-        final Case2<P, R, E1, Pair<E2, E3>> case2 =
-                new Case2<>(predicate, compute1, (p -> new Pair<>(compute2.apply(p), compute3.apply(p))));
-
-        final WithCapture<Pair<E2, E3>, Pair<C2, C3>> capture = e2e3 ->
-                aCase2.unapply(e2e3._1).
-                        flatMap(c2 -> aCase3.unapply(e2e3._2).
-                                map(c3 -> Result.successWithCapture(new Pair<>(c2.resultValue(), c3.resultValue()))));
-
-        return case2.$(aCase1, capture);
+        return WithCapture.adapt(pattern(0b110, aCase1, aCase2, aCase3));
     }
 
-    public <C1, C2, C3> WithCapture<P, Pair<C1, Pair<C2, C3>>> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3) {
-        final Case2<P, R, E1, Pair<E2, E3>> case2 =
-                new Case2<>(predicate, compute1, (p -> new Pair<>(compute2.apply(p), compute3.apply(p))));
-
-        final WithCapture<Pair<E2, E3>, Pair<C2, C3>> capture = e2e3 ->
-                aCase2.unapply(e2e3._1).
-                        flatMap(c2 -> aCase3.unapply(e2e3._2).
-                                map(c3 -> Result.successWithCapture(new Pair<>(c2.resultValue(), c3.resultValue()))));
+    public <C1, C2, C3> WithCapture3<P, C1, C2, C3> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3) {
+        return WithCapture3.adapt(pattern(0b111, aCase1, aCase2, aCase3));
+    }
 
-        return case2.$(aCase1, capture);
+    /**
+     * @param captures The captured components mask i.e. the bit i is set when the case i is a capture
+     * @param cases    The component cases
+     * @param <C>      The result type
+     * @return the product pattern
+     */
+    private <C> Case<P, C> pattern(int captures, Case<?, ?>... cases) {
+        return new Product<>(predicate, computes, captures, cases);
     }
 }
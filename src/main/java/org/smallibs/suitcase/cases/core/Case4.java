@@ -18,196 +18,98 @@
 
 package org.smallibs.suitcase.cases.core;
 
+import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Case.WithCapture;
+import org.smallibs.suitcase.cases.Case.WithCapture3;
+import org.smallibs.suitcase.cases.Case.WithCapture4;
 import org.smallibs.suitcase.cases.Case.WithoutCapture;
-import org.smallibs.suitcase.cases.Result;
 import org.smallibs.suitcase.utils.Pair;
+import org.smallibs.suitcase.utils.Tuple4;
 
 import java.util.Optional;
 import java.util.function.Function;
 
-;
-
 public class Case4<P, R, E1, E2, E3, E4> {
 
     private final Function<P, Optional<R>> predicate;
-    private final Function<P, E1> compute1;
-    private final Function<P, E2> compute2;
-    private final Function<P, E3> compute3;
-    private final Function<P, E4> compute4;
+    private final Function<?, ?>[] computes;
 
     public Case4(Function<P, Optional<R>> predicate, Function<P, E1> compute1, Function<P, E2> compute2, Function<P, E3> compute3, Function<P, E4> compute4) {
         this.predicate = predicate;
-        this.compute1 = compute1;
-        this.compute2 = compute2;
-        this.compute3 = compute3;
-        this.compute4 = compute4;
+        this.computes = new Function<?, ?>[]{compute1, compute2, compute3, compute4};
     }
 
-    public <C1, C2, C3, C4> WithoutCapture<P, Pair<C1, Pair<C2, Pair<C3, C4>>>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithoutCapture<Pair<E3, E4>, Pair<C3, C4>> capture = e3e4 ->
-                aCase3.unapply(e3e4._1)
-                        .flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> Result.success(new Pair<>(c3.resultValue(), c4.resultValue()))));
-
-        return case3.$(aCase1, aCase2, capture);
+    public <C1, C2, C3, C4> WithoutCapture<P, Tuple4<C1, C2, C3, C4>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
+        return WithoutCapture.adapt(pattern(0b0000, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, C1> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithoutCapture<Pair<E3, E4>, Pair<C3, C4>> capture = e3e4 ->
-                aCase3.unapply(e3e4._1)
-                        .flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> Result.success(new Pair<>(c3.resultValue(), c4.resultValue()))));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b0001, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, C2> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithoutCapture<Pair<E3, E4>, Pair<C3, C4>> capture = e3e4 ->
-                aCase3.unapply(e3e4._1)
-                        .flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> Result.success(new Pair<>(c3.resultValue(), c4.resultValue()))));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b0010, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, C3> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, C3> capture = e3e4 ->
-                aCase3.unapply(e3e4._1)
-                        .flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> c3));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b0100, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, C4> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, C4> capture = e3e4 ->
-                aCase3.unapply(e3e4._1)
-                        .flatMap(c3 -> aCase4.unapply(e3e4._2));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b1000, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, Pair<C1, C2>> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithoutCapture<Pair<E3, E4>, Pair<C3, C4>> capture = e3e4 ->
-                aCase3.unapply(e3e4._1)
-                        .flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> Result.success(new Pair<>(c3.resultValue(), c4.resultValue()))));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b0011, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, Pair<C1, C3>> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, C3> capture = e3e4 ->
-                aCase3.unapply(e3e4._1).flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> c3));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b0101, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, Pair<C1, C4>> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, C4> capture = e3e4 ->
-                aCase3.unapply(e3e4._1).flatMap(c3 -> aCase4.unapply(e3e4._2));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b1001, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, Pair<C2, C3>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, C3> capture = e3e4 ->
-                aCase3.unapply(e3e4._1).flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> c3));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b0110, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, Pair<C2, C4>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, C4> capture = e3e4 ->
-                aCase3.unapply(e3e4._1).flatMap(c3 -> aCase4.unapply(e3e4._2));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b1010, aCase1, aCase2, aCase3, aCase4));
     }
 
     public <C1, C2, C3, C4> WithCapture<P, Pair<C3, C4>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, Pair<C3, C4>> capture = e3e4 ->
-                aCase3.unapply(e3e4._1).flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> Result.successWithCapture(new Pair<>(c3.resultValue(), c4.resultValue()))));
-
-        return case3.$(aCase1, aCase2, capture);
+        return WithCapture.adapt(pattern(0b1100, aCase1, aCase2, aCase3, aCase4));
     }
 
-    public <C1, C2, C3, C4> WithCapture<P, Pair<C1, Pair<C2, C3>>> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, C3> capture = e3e4 ->
-                aCase3.unapply(e3e4._1).flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> c3));
-
-        return case3.$(aCase1, aCase2, capture);
+    public <C1, C2, C3, C4> WithCapture3<P, C1, C2, C3> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4) {
+        return WithCapture3.adapt(pattern(0b0111, aCase1, aCase2, aCase3, aCase4));
     }
 
-    public <C1, C2, C3, C4> WithCapture<P, Pair<C1, Pair<C2, C4>>> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, C4> capture = e3e4 ->
-                aCase3.unapply(e3e4._1).flatMap(c3 -> aCase4.unapply(e3e4._2));
-
-        return case3.$(aCase1, aCase2, capture);
+    public <C1, C2, C3, C4> WithCapture3<P, C1, C2, C4> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
+        return WithCapture3.adapt(pattern(0b1011, aCase1, aCase2, aCase3, aCase4));
     }
 
-    public <C1, C2, C3, C4> WithCapture<P, Pair<C1, Pair<C3, C4>>> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, Pair<C3, C4>> capture = e3e4 ->
-                aCase3.unapply(e3e4._1).flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> Result.successWithCapture(new Pair<>(c3.resultValue(), c4.resultValue()))));
-
-        return case3.$(aCase1, aCase2, capture);
+    public <C1, C2, C3, C4> WithCapture3<P, C1, C3, C4> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
+        return WithCapture3.adapt(pattern(0b1101, aCase1, aCase2, aCase3, aCase4));
     }
 
-    public <C1, C2, C3, C4> WithCapture<P, Pair<C2, Pair<C3, C4>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, Pair<C3, C4>> capture = e3e4 ->
-                aCase3.unapply(e3e4._1).flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> Result.successWithCapture(new Pair<>(c3.resultValue(), c4.resultValue()))));
-
-        return case3.$(aCase1, aCase2, capture);
+    public <C1, C2, C3, C4> WithCapture3<P, C2, C3, C4> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
+        return WithCapture3.adapt(pattern(0b1110, aCase1, aCase2, aCase3, aCase4));
     }
 
-    public <C1, C2, C3, C4> WithCapture<P, Pair<C1, Pair<C2, Pair<C3, C4>>>> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
-        final Case3<P, R, E1, E2, Pair<E3, E4>> case3 =
-                new Case3<>(predicate, compute1, compute2, (p -> new Pair<>(compute3.apply(p), compute4.apply(p))));
-
-        final WithCapture<Pair<E3, E4>, Pair<C3, C4>> capture = e3e4 ->
-                aCase3.unapply(e3e4._1)
-                        .flatMap(c3 -> aCase4.unapply(e3e4._2).map(c4 -> Result.successWithCapture(new Pair<>(c3.resultValue(), c4.resultValue()))));
+    public <C1, C2, C3, C4> WithCapture4<P, C1, C2, C3, C4> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4) {
+        return WithCapture4.adapt(pattern(0b1111, aCase1, aCase2, aCase3, aCase4));
+    }
 
-        return case3.$(aCase1, aCase2, capture);
+    /**
+     * @param captures The captured components mask i.e. the bit i is set when the case i is a capture
+     * @param cases    The component cases
+     * @param <C>      The result type
+     * @return the product pattern
+     */
+    private <C> Case<P, C> pattern(int captures, Case<?, ?>... cases) {
+        return new Product<>(predicate, computes, captures, cases);
     }
 }
@@ -1,720 +1,309 @@
 /*
+ * Copyright (C)2015 D. Plaindoux.
  *
- *  * Copyright (C)3024 D. Plaindoux.
- *  *
- *  * This program is free software; you can redistribute it and/or modify it
- *  * under the terms of the GNU Lesser General Public License as published
- *  * by the Free Software Foundation; either version 3, or (at your option) any
- *  * later version.
- *  *
- *  * This program is distributed in the hope that it will be useful,
- *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
- *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- *  * GNU Lesser General Public License for more details.
- *  *
- *  * You should have received a copy of the GNU Lesser General Public License
- *  * along with this program; see the file COPYING.  If not, write to
- *  * the Free Software Foundation, 676 Mass Ave, Cambridge, MA 03249, USA.
- *  
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
  */
 
 package org.smallibs.suitcase.cases.core;
 
+import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Case.WithCapture;
+import org.smallibs.suitcase.cases.Case.WithCapture3;
+import org.smallibs.suitcase.cases.Case.WithCapture4;
+import org.smallibs.suitcase.cases.Case.WithCapture5;
+import org.smallibs.suitcase.cases.Case.WithCapture6;
 import org.smallibs.suitcase.cases.Case.WithoutCapture;
-import org.smallibs.suitcase.cases.Result;
 import org.smallibs.suitcase.utils.Pair;
+import org.smallibs.suitcase.utils.Tuple6;
 
 import java.util.Optional;
 import java.util.function.Function;
 
-;
-
 public class Case6<P, R, E1, E2, E3, E4, E5, E6> {
 
     private final Function<P, Optional<R>> predicate;
-    private final Function<P, E1> compute1;
-    private final Function<P, E2> compute2;
-    private final Function<P, E3> compute3;
-    private final Function<P, E4> compute4;
-    private final Function<P, E5> compute5;
-    private final Function<P, E6> compute6;
+    private final Function<?, ?>[] computes;
 
     public Case6(Function<P, Optional<R>> predicate, Function<P, E1> compute1, Function<P, E2> compute2, Function<P, E3> compute3, Function<P, E4> compute4, Function<P, E5> compute5, Function<P, E6> compute6) {
         this.predicate = predicate;
-        this.compute1 = compute1;
-        this.compute2 = compute2;
-        this.compute3 = compute3;
-        this.compute4 = compute4;
-        this.compute5 = compute5;
-        this.compute6 = compute6;
+        this.computes = new Function<?, ?>[]{compute1, compute2, compute3, compute4, compute5, compute6};
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithoutCapture<P, Pair<C1, Pair<C2, Pair<C3, Pair<C4, Pair<C5, C6>>>>>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithoutCapture<P, Tuple6<C1, C2, C3, C4, C5, C6>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithoutCapture.adapt(pattern(0b000000, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C3> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C1> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b000001, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C4> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C2> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b000010, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C5> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C3> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b000100, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C6> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C4> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b001000, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, C4>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C5> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b010000, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, C5>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C6> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b100000, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, C6>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1, C2>> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b000011, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C4, C5>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1, C3>> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b000101, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C4, C6>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1, C4>> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b001001, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C5, C6>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1, C5>> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b010001, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, Pair<C4, C5>>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1, C6>> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b100001, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, Pair<C4, C6>>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2, C3>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b000110, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, Pair<C5, C6>>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2, C4>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b001010, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C4, Pair<C5, C6>>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2, C5>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b010010, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, Pair<C4, Pair<C5, C6>>>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2, C6>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b100010, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C2> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, C4>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b001100, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2, C3>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, C5>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b010100, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,C4>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C3, C6>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b100100, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,C5>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C4, C5>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b011000, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,C6>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C4, C6>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b101000, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C3, C4>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C5, C6>> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture.adapt(pattern(0b110000, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C3, C5>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C2, C3> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b000111, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C3, C6>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C2, C4> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b001011, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C4, C5>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C2, C5> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b010011, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C4, C6>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C2, C6> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b100011, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C5, C6>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C3, C4> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b001101, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C3, Pair<C4, C5>>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C3, C5> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b010101, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C3, Pair<C4, C6>>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C3, C6> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b100101, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C3, Pair<C5, C6>>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C4, C5> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b011001, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C4, Pair<C5, C6>>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C4, C6> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b101001, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C2,Pair<C3, Pair<C4, Pair<C5, C6>>>>> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C1, C5, C6> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b110001, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, C1> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C2, C3, C4> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b001110, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,C3>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C2, C3, C5> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b010110, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,C4>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C2, C3, C6> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b100110, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,C5>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C2, C4, C5> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b011010, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,C6>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C2, C4, C6> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b101010, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C3, C4>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C2, C5, C6> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b110010, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C3, C5>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C3, C4, C5> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b011100, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C3, C6>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C3, C4, C6> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b101100, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C4, C5>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C3, C5, C6> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b110100, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C4, C6>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture3<P, C4, C5, C6> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture3.adapt(pattern(0b111000, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C5, C6>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C2, C3, C4> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b001111, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C3, Pair<C4, C5>>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C2, C3, C5> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b010111, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C3, Pair<C4, C6>>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C2, C3, C6> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b100111, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C3, Pair<C5, C6>>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C2, C4, C5> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b011011, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C4, Pair<C5, C6>>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C2, C4, C6> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b101011, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C3, Pair<C4, Pair<C5, C6>>>>> $(WithCapture <E1, C1> aCase1, WithoutCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C2, C5, C6> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b110011, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,C2>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C3, C4, C5> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b011101, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2, C3>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C3, C4, C6> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b101101, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,C4>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C3, C5, C6> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b110101, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,C5>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C1, C4, C5, C6> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b111001, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,C6>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C2, C3, C4, C5> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b011110, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C3, C4>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithoutCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.success(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C2, C3, C4, C6> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b101110, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C3, C5>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C2, C3, C5, C6> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b110110, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C3, C6>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C2, C4, C5, C6> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b111010, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C4, C5>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture4<P, C3, C4, C5, C6> $(WithoutCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture4.adapt(pattern(0b111100, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C4, C6>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture5<P, C1, C2, C3, C4, C5> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
+        return WithCapture5.adapt(pattern(0b011111, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C5, C6>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture5<P, C1, C2, C3, C4, C6> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture5.adapt(pattern(0b101111, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C3, Pair<C4, C5>>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithoutCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C5> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> c5));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture5<P, C1, C2, C3, C5, C6> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture5.adapt(pattern(0b110111, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C3, Pair<C4, C6>>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithoutCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, C6> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture5<P, C1, C2, C4, C5, C6> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture5.adapt(pattern(0b111011, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C3, Pair<C5, C6>>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithoutCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture5<P, C1, C3, C4, C5, C6> $(WithCapture<E1, C1> aCase1, WithoutCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture5.adapt(pattern(0b111101, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C4, Pair<C5, C6>>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithoutCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1).flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
-
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    public <C1, C2, C3, C4, C5, C6> WithCapture5<P, C2, C3, C4, C5, C6> $(WithoutCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture5.adapt(pattern(0b111110, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
     }
 
-    public <C1, C2, C3, C4, C5, C6> WithCapture<P, Pair<C1,Pair<C2,Pair<C3, Pair<C4, Pair<C5, C6>>>>>> $(WithCapture <E1, C1> aCase1, WithCapture<E2,C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
-        final Case5<P, R, E1, E2, E3, E4, Pair<E5, E6>> case5 =
-                new Case5<>(predicate, compute1, compute2, compute3, compute4, (p -> new Pair<>(compute5.apply(p), compute6.apply(p))));
-
-        final WithCapture<Pair<E5, E6>, Pair<C5, C6>> capture = e5e6 ->
-                aCase5.unapply(e5e6._1)
-                        .flatMap(c5 -> aCase6.unapply(e5e6._2).map(c6 -> Result.successWithCapture(new Pair<>(c5.resultValue(), c6.resultValue()))));
+    public <C1, C2, C3, C4, C5, C6> WithCapture6<P, C1, C2, C3, C4, C5, C6> $(WithCapture<E1, C1> aCase1, WithCapture<E2, C2> aCase2, WithCapture<E3, C3> aCase3, WithCapture<E4, C4> aCase4, WithCapture<E5, C5> aCase5, WithCapture<E6, C6> aCase6) {
+        return WithCapture6.adapt(pattern(0b111111, aCase1, aCase2, aCase3, aCase4, aCase5, aCase6));
+    }
 
-        return case5.$(aCase1, aCase2,  aCase3, aCase4, capture);
+    /**
+     * @param captures The captured components mask i.e. the bit i is set when the case i is a capture
+     * @param cases    The component cases
+     * @param <C>      The result type
+     * @return the product pattern
+     */
+    private <C> Case<P, C> pattern(int captures, Case<?, ?>... cases) {
+        return new Product<>(predicate, computes, captures, cases);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases.core;
+
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Case.WithCapture;
+import org.smallibs.suitcase.cases.Case.WithoutCapture;
+import org.smallibs.suitcase.utils.TupleN;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Case deconstructing an object in any number of components. Since the component
+ * types cannot be tracked the values are combined in a TupleN: every value when no
+ * case is a capture and the captured ones otherwise.
+ *
+ * @param <P> The matched object type
+ * @param <R> The predicate result type
+ */
+public class CaseN<P, R> {
+
+    private final Function<P, Optional<R>> predicate;
+    private final Function<?, ?>[] computes;
+
+    @SafeVarargs
+    public CaseN(Function<P, Optional<R>> predicate, Function<P, ?>... computes) {
+        this.predicate = predicate;
+        this.computes = computes.clone();
+    }
+
+    public int arity() {
+        return computes.length;
+    }
+
+    public WithoutCapture<P, TupleN> $(WithoutCapture<?, ?>... cases) {
+        return WithoutCapture.adapt(new Product<>(predicate, computes, 0, false, true, cases));
+    }
+
+    public WithCapture<P, TupleN> $(Case<?, ?>... cases) {
+        long captures = 0;
+        for (int index = 0; index < cases.length; index++) {
+            if (cases[index] instanceof WithCapture) {
+                captures |= 1L << index;
+            }
+        }
+
+        return WithCapture.adapt(new Product<>(predicate, computes, captures, true, true, cases));
+    }
+}
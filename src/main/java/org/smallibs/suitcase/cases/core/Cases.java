@@ -18,7 +18,10 @@
 
 package org.smallibs.suitcase.cases.core;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Result;
+import org.smallibs.suitcase.cases.Shape;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -46,7 +49,7 @@ public interface Cases {
     }
 
     static <T> Case.WithoutCapture<T, T> Constant(T value) {
-        return new Case0<T, T>(p -> Objects.deepEquals(p, value) ? Optional.of(p) : Optional.empty()).$();
+        return new Constant<>(value);
     }
 
     static <T> Case.WithoutCapture<T, T> Null() {
@@ -54,10 +57,57 @@ public interface Cases {
     }
 
     static <T> Case.WithoutCapture<T, T> Any() {
-        return new Case0<T, T>(Optional::of).$();
+        return new Case0<T, T>(Predicates.any()).$();
     }
 
     static <T> Case.WithoutCapture<T, T> typeOf(Class<T> type) {
-        return new Case0<T, T>(p -> p.getClass().isAssignableFrom(type) ? Optional.of(type.cast(p)) : Optional.empty()).$();
+        return new Case0<T, T>(new TypeGuard<>(type, type::cast)).$();
+    }
+
+    // =================================================================================================================
+    // Constant case class
+    // =================================================================================================================
+
+    class Constant<T> implements Case.WithoutCapture<T, T> {
+
+        private final T value;
+
+        /**
+         * Shared result returned when the matched object is the constant itself
+         */
+        private final Optional<Result.WithoutCapture<T>> identity;
+
+        public Constant(T value) {
+            this.value = value;
+            this.identity = Optional.of(Result.success(value));
+        }
+
+        public T value() {
+            return value;
+        }
+
+        @Override
+        public Optional<Result.WithoutCapture<T>> unapply(T t) {
+            if (t == value) {
+                return identity;
+            }
+
+            return Objects.deepEquals(t, value) ? Optional.of(Result.success(t)) : Optional.empty();
+        }
+
+        @Override
+        public boolean unapply(T t, Captures captures) {
+            if (Objects.deepEquals(t, value)) {
+                captures.push(t);
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public Shape shape() {
+            return Shape.constant(value);
+        }
     }
 }
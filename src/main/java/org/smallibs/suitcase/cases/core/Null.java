@@ -18,24 +18,43 @@
 
 package org.smallibs.suitcase.cases.core;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Result;
+import org.smallibs.suitcase.cases.Shape;
 
 import java.util.Optional;
 
 class Null<T> implements Case.WithoutCapture<T, T> {
 
+    private static final Optional<Result.WithoutCapture<Object>> SUCCESS = Optional.of(Result.success(null));
+
     Null() {
         // Nothing
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Optional<Result.WithoutCapture<T>> unapply(T object) {
         if (object == null) {
-            return Optional.of(Result.success(object));
+            return (Optional<Result.WithoutCapture<T>>) (Optional<?>) SUCCESS;
         } else {
             return Optional.empty();
         }
     }
 
+    @Override
+    public boolean unapply(T object, Captures captures) {
+        if (object == null) {
+            captures.push(null);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public Shape shape() {
+        return Shape.constant(null);
+    }
 }
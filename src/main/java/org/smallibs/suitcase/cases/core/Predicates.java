@@ -0,0 +1,88 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases.core;
+
+import org.smallibs.suitcase.cases.Shape;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Case predicate evaluation without intermediate Optional when the predicate is a
+ * type guard or the predicate accepting any object.
+ */
+final class Predicates {
+
+    /**
+     * Result denoting a rejected object
+     */
+    static final Object MISMATCH = new Object();
+
+    private static final Function<Object, Optional<Object>> ANY = Optional::of;
+
+    private Predicates() {
+    }
+
+    /**
+     * @param <P> The matched object type
+     * @return the predicate accepting any object
+     */
+    @SuppressWarnings("unchecked")
+    static <P> Function<P, Optional<P>> any() {
+        return (Function<P, Optional<P>>) (Function<?, ?>) ANY;
+    }
+
+    /**
+     * @param predicate The predicate
+     * @return the shape of the objects accepted by the predicate
+     */
+    static Shape shapeOf(Function<?, ?> predicate) {
+        if (predicate instanceof TypeGuard) {
+            return Shape.type(TypeGuard.typeOf(predicate).get());
+        }
+
+        if (predicate == (Object) ANY) {
+            return Shape.any();
+        }
+
+        return Shape.unknown();
+    }
+
+    /**
+     * @param predicate The predicate
+     * @param p         The matched object
+     * @param <P>       The matched object type
+     * @param <R>       The predicate result type
+     * @return the predicate result or MISMATCH if the object is rejected
+     */
+    @SuppressWarnings("unchecked")
+    static <P, R> Object apply(Function<P, Optional<R>> predicate, P p) {
+        if (predicate instanceof TypeGuard) {
+            final TypeGuard<P, R> guard = (TypeGuard<P, R>) predicate;
+            return guard.accept(p) ? guard.value(p) : MISMATCH;
+        }
+
+        if (predicate == (Object) ANY) {
+            return p;
+        }
+
+        final Optional<R> result = predicate.apply(p);
+        return result.isPresent() ? result.get() : MISMATCH;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases.core;
+
+import org.smallibs.suitcase.cases.Captures;
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Result;
+import org.smallibs.suitcase.cases.Shape;
+import org.smallibs.suitcase.utils.Pair;
+import org.smallibs.suitcase.utils.Tuple3;
+import org.smallibs.suitcase.utils.Tuple4;
+import org.smallibs.suitcase.utils.Tuple5;
+import org.smallibs.suitcase.utils.Tuple6;
+import org.smallibs.suitcase.utils.TupleN;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Pattern deconstructing an object in components. Components are extracted and their
+ * cases evaluated in declaration order and the evaluation stops at the first failing
+ * case. The result combines the captured components or every component when no one is captured:
+ * a single value is kept as is, two values make a Pair and more values make a flat tuple.
+ * Products of any arity may combine their values in a TupleN whatever their number.
+ *
+ * @param <P> The matched object type
+ * @param <R> The predicate result type
+ * @param <C> The pattern result type
+ */
+final class Product<P, R, C> implements Case<P, C> {
+
+    private final Function<P, Optional<R>> predicate;
+    private final Function<Object, Object>[] computes;
+    private final Case<Object, ?>[] cases;
+    private final boolean withCapture;
+    private final boolean uniform;
+    private final long kept;
+    private final int arity;
+
+    /**
+     * The constructor
+     *
+     * @param predicate The predicate
+     * @param computes  The component extractors
+     * @param captures  The captured components mask i.e. the bit i is set when the case i is a capture
+     * @param cases     The component cases
+     */
+    Product(Function<P, Optional<R>> predicate, Function<?, ?>[] computes, int captures, Case<?, ?>[] cases) {
+        this(predicate, computes, captures, captures != 0, false, cases);
+    }
+
+    /**
+     * The constructor
+     *
+     * @param predicate   The predicate
+     * @param computes    The component extractors
+     * @param captures    The captured components mask i.e. the bit i is set when the case i is a capture
+     * @param withCapture True if the result is a capture
+     * @param uniform     True if the values are always combined in a TupleN
+     * @param cases       The component cases
+     */
+    @SuppressWarnings("unchecked")
+    Product(Function<P, Optional<R>> predicate, Function<?, ?>[] computes, long captures, boolean withCapture, boolean uniform, Case<?, ?>[] cases) {
+        if (cases.length != computes.length || cases.length > Long.SIZE) {
+            throw new IllegalArgumentException("Expecting " + computes.length + " cases");
+        }
+
+        this.predicate = predicate;
+        this.computes = (Function<Object, Object>[]) computes;
+        this.cases = (Case<Object, ?>[]) cases;
+        this.withCapture = withCapture;
+        this.uniform = uniform;
+        this.kept = captures == 0 && cases.length > 0 ? -1L >>> (Long.SIZE - cases.length) : captures;
+        this.arity = Long.bitCount(this.kept);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<C> unapply(P p) {
+        if (Predicates.apply(predicate, p) == Predicates.MISMATCH) {
+            return Optional.empty();
+        }
+
+        final Object[] values = new Object[arity];
+        int position = 0;
+        for (int index = 0; index < cases.length; index++) {
+            final Optional<?> result = cases[index].unapply(computes[index].apply(p));
+            if (!result.isPresent()) {
+                return Optional.empty();
+            }
+            if ((kept & 1L << index) != 0) {
+                values[position++] = ((Result<?>) result.get()).resultValue();
+            }
+        }
+
+        final Object value = uniform ? new TupleN(values) : combine(values);
+        return Optional.of((C) (!withCapture ? Result.success(value) : Result.successWithCapture(value)));
+    }
+
+    @Override
+    public boolean unapply(P p, Captures captures) {
+        if (Predicates.apply(predicate, p) == Predicates.MISMATCH) {
+            return false;
+        }
+
+        if (captures.isIgnored()) {
+            for (int index = 0; index < cases.length; index++) {
+                if (!cases[index].unapply(computes[index].apply(p), captures)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        final int size = captures.size();
+        for (int index = 0; index < cases.length; index++) {
+            final Captures sink = (kept & 1L << index) != 0 ? captures : Captures.ignore();
+            if (!cases[index].unapply(computes[index].apply(p), sink)) {
+                captures.reset(size);
+                return false;
+            }
+        }
+
+        if (uniform) {
+            final Object[] values = new Object[arity];
+            for (int index = arity - 1; index >= 0; index--) {
+                values[index] = captures.pop();
+            }
+            captures.push(new TupleN(values));
+        } else {
+            combine(captures, arity);
+        }
+
+        return true;
+    }
+
+    @Override
+    public Optional<Class<?>> typeGuard() {
+        return TypeGuard.typeOf(predicate);
+    }
+
+    @Override
+    public Shape shape() {
+        final List<Shape> shapes = new ArrayList<>(cases.length);
+        for (Case<?, ?> aCase : cases) {
+            shapes.add(aCase.shape());
+        }
+        return Shape.product(Predicates.shapeOf(predicate), Arrays.asList(computes), shapes);
+    }
+
+    // =================================================================================================================
+
+    private static Object combine(Object[] values) {
+        switch (values.length) {
+            case 1:
+                return values[0];
+            case 2:
+                return new Pair<>(values[0], values[1]);
+            case 3:
+                return new Tuple3<>(values[0], values[1], values[2]);
+            case 4:
+                return new Tuple4<>(values[0], values[1], values[2], values[3]);
+            case 5:
+                return new Tuple5<>(values[0], values[1], values[2], values[3], values[4]);
+            default:
+                return new Tuple6<>(values[0], values[1], values[2], values[3], values[4], values[5]);
+        }
+    }
+
+    /**
+     * Replaces the last values of the sink by their combination
+     *
+     * @param captures The capture sink
+     * @param arity    The number of values to be combined
+     */
+    private static void combine(Captures captures, int arity) {
+        switch (arity) {
+            case 1:
+                break;
+            case 2:
+                captures.pair();
+                break;
+            case 3: {
+                final Object v3 = captures.pop(), v2 = captures.pop(), v1 = captures.pop();
+                captures.push(new Tuple3<>(v1, v2, v3));
+                break;
+            }
+            case 4: {
+                final Object v4 = captures.pop(), v3 = captures.pop(), v2 = captures.pop(), v1 = captures.pop();
+                captures.push(new Tuple4<>(v1, v2, v3, v4));
+                break;
+            }
+            case 5: {
+                final Object v5 = captures.pop(), v4 = captures.pop(), v3 = captures.pop(), v2 = captures.pop(), v1 = captures.pop();
+                captures.push(new Tuple5<>(v1, v2, v3, v4, v5));
+                break;
+            }
+            default: {
+                final Object v6 = captures.pop(), v5 = captures.pop(), v4 = captures.pop(), v3 = captures.pop(), v2 = captures.pop(), v1 = captures.pop();
+                captures.push(new Tuple6<>(v1, v2, v3, v4, v5, v6));
+            }
+        }
+    }
+}
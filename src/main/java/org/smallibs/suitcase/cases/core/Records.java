@@ -0,0 +1,122 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Record components access. Records are only available since Java 16 so components are
+ * retrieved reflectively and older runtimes never recognize a record. The accessors of
+ * a record class are resolved once as method handles.
+ */
+final class Records {
+
+    private static final Method IS_RECORD;
+    private static final Method GET_RECORD_COMPONENTS;
+    private static final Method GET_ACCESSOR;
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<MethodHandle[]> ACCESSORS = new ClassValue<MethodHandle[]>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    static {
+        Method isRecord, getRecordComponents, getAccessor;
+        try {
+            isRecord = Class.class.getMethod("isRecord");
+            getRecordComponents = Class.class.getMethod("getRecordComponents");
+            getAccessor = Class.forName("java.lang.reflect.RecordComponent").getMethod("getAccessor");
+        } catch (NoSuchMethodException | ClassNotFoundException e) {
+            isRecord = null;
+            getRecordComponents = null;
+            getAccessor = null;
+        }
+
+        IS_RECORD = isRecord;
+        GET_RECORD_COMPONENTS = getRecordComponents;
+        GET_ACCESSOR = getAccessor;
+    }
+
+    private Records() {
+    }
+
+    /**
+     * @param type The record class
+     * @return the component accessors in declaration order, each one of type (Object)Object
+     * @throws IllegalArgumentException if the type is not a record or if its components cannot be accessed
+     */
+    static MethodHandle[] accessors(Class<?> type) {
+        if (IS_RECORD == null || !(Boolean) invoke(IS_RECORD, type)) {
+            throw new IllegalArgumentException(type.getName() + " is not a record");
+        }
+
+        return ACCESSORS.get(type);
+    }
+
+    /**
+     * @param accessor The component accessor
+     * @param record   The record
+     * @return the component value
+     */
+    static Object get(MethodHandle accessor, Object record) {
+        try {
+            return (Object) accessor.invokeExact(record);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    // =================================================================================================================
+
+    private static MethodHandle[] resolve(Class<?> type) {
+        final Object[] components = (Object[]) invoke(GET_RECORD_COMPONENTS, type);
+        final MethodHandle[] accessors = new MethodHandle[components.length];
+
+        for (int index = 0; index < components.length; index++) {
+            final Method accessor = (Method) invoke(GET_ACCESSOR, components[index]);
+            try {
+                accessor.setAccessible(true);
+                accessors[index] = MethodHandles.lookup().unreflect(accessor).asType(ACCESSOR_TYPE);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException("Cannot access " + accessor, e);
+            }
+        }
+
+        return accessors;
+    }
+
+    private static Object invoke(Method method, Object target) {
+        try {
+            return method.invoke(target);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
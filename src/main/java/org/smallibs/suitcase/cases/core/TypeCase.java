@@ -18,27 +18,38 @@
 
 package org.smallibs.suitcase.cases.core;
 
+import java.lang.invoke.MethodHandle;
 import java.util.Optional;
 import java.util.function.Function;
 
 public interface TypeCase {
 
+    /**
+     * @param type The matched type
+     * @param <P>  The matched object type
+     * @param <T>  The accepted type
+     * @return a predicate accepting objects of the given type, recognized as a type guard by the cases
+     */
+    static <P, T extends P> Function<P, Optional<P>> guard(Class<T> type) {
+        return new TypeGuard<>(type, Function.identity());
+    }
+
     static <P, T extends P> Case0<P, Boolean> of(Class<T> type) {
         return new Case0<>(
-                e -> e.getClass().isAssignableFrom(type) ? Optional.of(true) : Optional.empty()
+                new TypeGuard<>(type, e -> true)
         );
     }
 
     static <P, T extends P, E> Case1<P, P, E> of(Class<T> type, Function<T, E> get) {
         return new Case1<>(
-                e -> e.getClass().isAssignableFrom(type) ? Optional.of(e) : Optional.empty(),
+                new TypeGuard<>(type, e -> e),
                 e -> get.apply(type.cast(e))
         );
     }
 
     static <P, T extends P, E1, E2> Case2<P, P, E1, E2> of(Class<T> type, Function<T, E1> get1, Function<T, E2> get2) {
         return new Case2<>(
-                e -> e.getClass().isAssignableFrom(type) ? Optional.of(e) : Optional.empty(),
+                new TypeGuard<>(type, e -> e),
                 e -> get1.apply(type.cast(e)),
                 e -> get2.apply(type.cast(e))
         );
@@ -46,7 +57,7 @@ public interface TypeCase {
 
     static <P, T extends P, E1, E2, E3> Case3<P, P, E1, E2, E3> of(Class<T> type, Function<T, E1> get1, Function<T, E2> get2, Function<T, E3> get3) {
         return new Case3<>(
-                e -> e.getClass().isAssignableFrom(type) ? Optional.of(e) : Optional.empty(),
+                new TypeGuard<>(type, e -> e),
                 e -> get1.apply(type.cast(e)),
                 e -> get2.apply(type.cast(e)),
                 e -> get3.apply(type.cast(e))
@@ -55,7 +66,7 @@ public interface TypeCase {
 
     static <P, T extends P, E1, E2, E3, E4> Case4<P, P, E1, E2, E3, E4> of(Class<T> type, Function<T, E1> get1, Function<T, E2> get2, Function<T, E3> get3, Function<T, E4> get4) {
         return new Case4<>(
-                e -> e.getClass().isAssignableFrom(type) ? Optional.of(e) : Optional.empty(),
+                new TypeGuard<>(type, e -> e),
                 e -> get1.apply(type.cast(e)),
                 e -> get2.apply(type.cast(e)),
                 e -> get3.apply(type.cast(e)),
@@ -65,7 +76,7 @@ public interface TypeCase {
 
     static <P, T extends P, E1, E2, E3, E4, E5> Case5<P, P, E1, E2, E3, E4, E5> of(Class<T> type, Function<T, E1> get1, Function<T, E2> get2, Function<T, E3> get3, Function<T, E4> get4, Function<T, E5> get5) {
         return new Case5<>(
-                e -> e.getClass().isAssignableFrom(type) ? Optional.of(e) : Optional.empty(),
+                new TypeGuard<>(type, e -> e),
                 e -> get1.apply(type.cast(e)),
                 e -> get2.apply(type.cast(e)),
                 e -> get3.apply(type.cast(e)),
@@ -76,7 +87,7 @@ public interface TypeCase {
 
     static <P, T extends P, E1, E2, E3, E4, E5, E6> Case6<P, P, E1, E2, E3, E4, E5, E6> of(Class<T> type, Function<T, E1> get1, Function<T, E2> get2, Function<T, E3> get3, Function<T, E4> get4, Function<T, E5> get5, Function<T, E6> get6) {
         return new Case6<>(
-                e -> e.getClass().isAssignableFrom(type) ? Optional.of(e) : Optional.empty(),
+                new TypeGuard<>(type, e -> e),
                 e -> get1.apply(type.cast(e)),
                 e -> get2.apply(type.cast(e)),
                 e -> get3.apply(type.cast(e)),
@@ -85,4 +96,42 @@ public interface TypeCase {
                 e -> get6.apply(type.cast(e))
         );
     }
+
+    /**
+     * @param type The matched type
+     * @param gets The component extractors
+     * @param <P>  The matched object type
+     * @param <T>  The accepted type
+     * @return a case deconstructing objects of the given type in any number of components
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    static <P, T extends P> CaseN<P, P> of(Class<T> type, Function<T, ?>... gets) {
+        final Function<P, ?>[] computes = new Function[gets.length];
+        for (int index = 0; index < gets.length; index++) {
+            final Function<T, ?> get = gets[index];
+            computes[index] = e -> get.apply(type.cast(e));
+        }
+
+        return new CaseN<>(new TypeGuard<>(type, e -> e), computes);
+    }
+
+    /**
+     * @param type The matched record type
+     * @param <P>  The matched object type
+     * @param <T>  The accepted record type
+     * @return a case deconstructing records of the given type in their components
+     * @throws IllegalArgumentException if the type is not a record
+     */
+    @SuppressWarnings("unchecked")
+    static <P, T extends P> CaseN<P, P> ofRecord(Class<T> type) {
+        final MethodHandle[] accessors = Records.accessors(type);
+        final Function<P, ?>[] computes = new Function[accessors.length];
+        for (int index = 0; index < accessors.length; index++) {
+            final MethodHandle accessor = accessors[index];
+            computes[index] = e -> Records.get(accessor, e);
+        }
+
+        return new CaseN<>(new TypeGuard<>(type, e -> e), computes);
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases.core;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Predicate accepting objects which runtime class is assignable from a given type.
+ * Such predicate is recognized by the cases in order to expose their type guard.
+ *
+ * @param <P> The matched object type
+ * @param <R> The predicate result type
+ */
+final class TypeGuard<P, R> implements Function<P, Optional<R>> {
+
+    private final Class<?> type;
+    private final Function<P, R> success;
+
+    TypeGuard(Class<?> type, Function<P, R> success) {
+        this.type = type;
+        this.success = success;
+    }
+
+    static Optional<Class<?>> typeOf(Function<?, ?> predicate) {
+        if (predicate instanceof TypeGuard) {
+            return Optional.of(((TypeGuard<?, ?>) predicate).type);
+        }
+
+        return Optional.empty();
+    }
+
+    boolean accept(P p) {
+        return p.getClass().isAssignableFrom(type);
+    }
+
+    R value(P p) {
+        return success.apply(p);
+    }
+
+    @Override
+    public Optional<R> apply(P p) {
+        return accept(p) ? Optional.of(value(p)) : Optional.empty();
+    }
+}
@@ -18,8 +18,10 @@
 
 package org.smallibs.suitcase.cases.core;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Result;
+import org.smallibs.suitcase.cases.Shape;
 import org.smallibs.suitcase.utils.Pair;
 
 import java.util.Optional;
@@ -38,6 +40,28 @@ public interface Var {
         public Optional<Result.WithCapture<Pair<T, R>>> unapply(T t) {
             return this.aCase.unapply(t).map(r -> Result.successWithCapture(new Pair<>(t, r.resultValue())));
         }
+
+        @Override
+        public boolean unapply(T t, Captures captures) {
+            captures.push(t);
+            if (this.aCase.unapply(t, captures)) {
+                captures.pair();
+                return true;
+            }
+
+            captures.pop();
+            return false;
+        }
+
+        @Override
+        public Optional<Class<?>> typeGuard() {
+            return this.aCase.typeGuard();
+        }
+
+        @Override
+        public Shape shape() {
+            return this.aCase.shape();
+        }
     }
 
     class WithoutInnerCapture<T, R> implements Case.WithCapture<T, R> {
@@ -48,10 +72,32 @@ public interface Var {
             this.aCase = aCase;
         }
 
+        /**
+         * @return the case giving the captured value
+         */
+        public Case.WithoutCapture<T, R> inner() {
+            return aCase;
+        }
+
         @Override
         public Optional<Result.WithCapture<R>> unapply(T t) {
             return this.aCase.unapply(t).map(result -> Result.successWithCapture(result.resultValue()));
         }
+
+        @Override
+        public boolean unapply(T t, Captures captures) {
+            return this.aCase.unapply(t, captures);
+        }
+
+        @Override
+        public Optional<Class<?>> typeGuard() {
+            return this.aCase.typeGuard();
+        }
+
+        @Override
+        public Shape shape() {
+            return this.aCase.shape();
+        }
     }
 
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases.lang;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attribute accessors of a bean class, resolved once per class as method handles. The
+ * accessors are given in the order used by attribute patterns: declared fields first,
+ * read directly when public or using their public getter otherwise, and then declared
+ * public getters. Attributes which cannot be read are not provided.
+ */
+final class BeanAccessors {
+
+    /**
+     * Value denoting an attribute which cannot be read
+     */
+    static final Object NONE = new Object();
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle[] NO_ACCESSORS = new MethodHandle[0];
+
+    private static final ClassValue<BeanAccessors> ACCESSORS = new ClassValue<BeanAccessors>() {
+        @Override
+        protected BeanAccessors computeValue(Class<?> type) {
+            return new BeanAccessors(type);
+        }
+    };
+
+    private final String[] names;
+    private final MethodHandle[] accessors;
+    private final Map<String, MethodHandle[]> named;
+
+    private BeanAccessors(Class<?> type) {
+        final List<String> names = new ArrayList<>();
+        final List<MethodHandle> accessors = new ArrayList<>();
+        final Map<String, Method> getters = new HashMap<>();
+
+        for (Method method : type.getMethods()) {
+            if (method.getParameterTypes().length == 0) {
+                getters.putIfAbsent(method.getName(), method);
+            }
+        }
+
+        for (Field field : type.getDeclaredFields()) {
+            final MethodHandle accessor;
+            if (Modifier.isPublic(field.getModifiers())) {
+                accessor = getter(field);
+            } else {
+                final Method getter = getters.get(getGetterName(field));
+                accessor = getter == null ? null : getter(getter);
+            }
+
+            if (accessor != null) {
+                names.add(field.getName());
+                accessors.add(accessor);
+            }
+        }
+
+        for (Method method : type.getDeclaredMethods()) {
+            final String fieldName = getFieldName(method);
+            if (fieldName != null && Modifier.isPublic(method.getModifiers()) && method.getParameterTypes().length == 0) {
+                final MethodHandle accessor = getter(method);
+                if (accessor != null) {
+                    names.add(fieldName);
+                    accessors.add(accessor);
+                }
+            }
+        }
+
+        this.names = names.toArray(new String[names.size()]);
+        this.accessors = accessors.toArray(new MethodHandle[accessors.size()]);
+        this.named = new HashMap<>();
+
+        for (int index = 0; index < this.names.length; index++) {
+            final MethodHandle[] current = this.named.getOrDefault(this.names[index], NO_ACCESSORS);
+            final MethodHandle[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = this.accessors[index];
+            this.named.put(this.names[index], extended);
+        }
+    }
+
+    /**
+     * @param type The bean class
+     * @return the accessors of the bean class
+     */
+    static BeanAccessors of(Class<?> type) {
+        return ACCESSORS.get(type);
+    }
+
+    /**
+     * @return the number of accessors
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * @param index The accessor index
+     * @return the name of the attribute read by the accessor
+     */
+    String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param index The accessor index
+     * @return the accessor of type (Object)Object
+     */
+    MethodHandle accessor(int index) {
+        return accessors[index];
+    }
+
+    /**
+     * @param name The attribute name
+     * @return the accessors reading the attribute in order, possibly none
+     */
+    MethodHandle[] named(String name) {
+        return named.getOrDefault(name, NO_ACCESSORS);
+    }
+
+    /**
+     * @param accessor The accessor
+     * @param bean     The bean
+     * @return the attribute value or NONE if it cannot be read
+     */
+    static Object get(MethodHandle accessor, Object bean) {
+        try {
+            return (Object) accessor.invokeExact(bean);
+        } catch (Throwable consume) {
+            return NONE;
+        }
+    }
+
+    // =================================================================================================================
+
+    private static MethodHandle getter(Field field) {
+        try {
+            final MethodHandle getter = MethodHandles.publicLookup().unreflectGetter(field);
+            return adapt(getter, Modifier.isStatic(field.getModifiers()));
+        } catch (IllegalAccessException consume) {
+            return null;
+        }
+    }
+
+    private static MethodHandle getter(Method method) {
+        try {
+            final MethodHandle getter = MethodHandles.publicLookup().unreflect(method);
+            return adapt(getter, Modifier.isStatic(method.getModifiers()));
+        } catch (IllegalAccessException consume) {
+            return null;
+        }
+    }
+
+    private static MethodHandle adapt(MethodHandle getter, boolean isStatic) {
+        final MethodHandle accessor = isStatic ? MethodHandles.dropArguments(getter, 0, Object.class) : getter;
+        return accessor.asType(ACCESSOR_TYPE);
+    }
+
+    private static String getGetterName(Field field) {
+        return "get" + field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
+    }
+
+    private static String getFieldName(Method method) {
+        final String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return name.substring(3, 4).toLowerCase() + name.substring(4);
+        } else {
+            return null;
+        }
+    }
+}
@@ -18,13 +18,13 @@
 
 package org.smallibs.suitcase.cases.lang;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Result;
 import org.smallibs.suitcase.cases.core.Cases;
+import org.smallibs.suitcase.utils.TupleN;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
+import java.lang.invoke.MethodHandle;
 import java.util.Optional;
 
 public interface Beans {
@@ -34,7 +34,7 @@ public interface Beans {
     }
 
     static <T, R, C> Case.WithoutCapture<T, C> Att(Case<String, ?> nameCase, Case.WithoutCapture<R, C> valueCase) {
-        return Case.WithoutCapture.adapt(new BeanAtt<>(nameCase, valueCase));
+        return new BeanAttWithoutCapture<>(nameCase, valueCase);
     }
 
     static <T, R, C> Case.WithCapture<T, C> Att(String nameCase, Case.WithCapture<R, C> valueCase) {
@@ -42,7 +42,27 @@ public interface Beans {
     }
 
     static <T, R, C> Case.WithCapture<T, C> Att(Case<String, ?> nameCase, Case.WithCapture<R, C> valueCase) {
-        return Case.WithCapture.adapt(new BeanAtt<>(nameCase, valueCase));
+        return new BeanAttWithCapture<>(nameCase, valueCase);
+    }
+
+    /**
+     * @param attributes The attribute cases
+     * @param <T>        The matched bean type
+     * @return a case accepting beans accepted by all attribute cases, the values being combined in a TupleN
+     */
+    @SafeVarargs
+    static <T> Case.WithoutCapture<T, TupleN> Bean(Case.WithoutCapture<T, ?>... attributes) {
+        return Case.WithoutCapture.adapt(new BeanAtts<>(attributes, false));
+    }
+
+    /**
+     * @param attributes The attribute cases
+     * @param <T>        The matched bean type
+     * @return a case accepting beans accepted by all attribute cases, the captures being combined in a TupleN
+     */
+    @SafeVarargs
+    static <T> Case.WithCapture<T, TupleN> Bean(Case<T, ?>... attributes) {
+        return Case.WithCapture.adapt(new BeanAtts<>(attributes, true));
     }
 
     // =================================================================================================================
@@ -54,69 +74,94 @@ public interface Beans {
         private final Case<String, ?> nameCase;
         private final Case<R, C> valueCase;
 
+        /**
+         * The attribute name when the name case is a constant or null otherwise
+         */
+        private final String name;
+
+        @SuppressWarnings("unchecked")
         public BeanAtt(Case<String, ?> nameCase, Case<R, C> valueCase) {
             this.nameCase = nameCase;
             this.valueCase = valueCase;
+            this.name = nameCase instanceof Cases.Constant ? ((Cases.Constant<String>) nameCase).value() : null;
         }
 
         @Override
         public Optional<C> unapply(T object) {
-            final Field[] fields = object.getClass().getDeclaredFields();
-
-            for (Field field : fields) {
-                final Optional<C> optional = unapplyField(object, field);
-                if (optional.isPresent()) {
-                    return optional;
+            final BeanAccessors accessors = BeanAccessors.of(object.getClass());
+
+            if (name != null) {
+                for (MethodHandle accessor : accessors.named(name)) {
+                    final Optional<C> optional = unapplyValue(BeanAccessors.get(accessor, object));
+                    if (optional.isPresent()) {
+                        return optional;
+                    }
                 }
+
+                return Optional.empty();
             }
 
-            final Method[] methods = object.getClass().getDeclaredMethods();
-            for (Method field : methods) {
-                final Optional<C> optional = unapplyMethod(object, field);
-                if (optional.isPresent()) {
-                    return optional;
+            for (int index = 0; index < accessors.size(); index++) {
+                if (unapplyName(accessors.name(index))) {
+                    final Optional<C> optional = unapplyValue(BeanAccessors.get(accessors.accessor(index), object));
+                    if (optional.isPresent()) {
+                        return optional;
+                    }
                 }
             }
 
             return Optional.empty();
         }
 
-        // =============================================================================================================
+        @Override
+        public boolean unapply(T object, Captures captures) {
+            final BeanAccessors accessors = BeanAccessors.of(object.getClass());
 
-        private Optional<C> unapplyMethod(T object, Method method) {
-            final String fieldName = getFieldName(method);
+            if (name != null) {
+                return unapply(object, accessors.named(name), captures);
+            }
 
-            if (fieldName != null) {
-                final Optional<?> unapplyName = unapplyName(fieldName);
-                if (unapplyName.isPresent()) {
-                    return unapplyMethodValue(object, method);
+            for (int index = 0; index < accessors.size(); index++) {
+                if (unapplyName(accessors.name(index)) && unapplyValue(BeanAccessors.get(accessors.accessor(index), object), captures)) {
+                    return true;
                 }
             }
 
-            return Optional.empty();
+            return false;
         }
 
-        private Optional<C> unapplyField(T object, Field field) {
-            final Optional<?> unapplyName = unapplyName(field.getName());
-            if (unapplyName.isPresent()) {
-                return unapplyFieldValue(object, field);
-            }
+        // =============================================================================================================
 
-            return Optional.empty();
+        /**
+         * @param type The bean class
+         * @return the accessors of the attribute when its name is a constant or null otherwise
+         */
+        MethodHandle[] accessors(Class<?> type) {
+            return name == null ? null : BeanAccessors.of(type).named(name);
         }
 
-        // =============================================================================================================
+        /**
+         * @param object    The bean
+         * @param accessors The accessors of the attribute
+         * @param captures  The capture sink
+         * @return true if a value read by one of the accessors is accepted
+         */
+        boolean unapply(T object, MethodHandle[] accessors, Captures captures) {
+            for (MethodHandle accessor : accessors) {
+                if (unapplyValue(BeanAccessors.get(accessor, object), captures)) {
+                    return true;
+                }
+            }
 
-        private Optional<?> unapplyName(String name) {
-            return nameCase.unapply(name);
+            return false;
         }
 
-        private Optional<C> unapplyMethodValue(T object, Method method) {
-            if (Modifier.isPublic(method.getModifiers()) && method.getParameterTypes().length == 0) {
+        @SuppressWarnings("unchecked")
+        private Optional<C> unapplyValue(Object value) {
+            if (value != BeanAccessors.NONE) {
                 try {
-                    //noinspection unchecked
-                    return valueCase.unapply((R) method.invoke(object));
-                } catch (IllegalAccessException | InvocationTargetException | ClassCastException consume) {
+                    return valueCase.unapply((R) value);
+                } catch (ClassCastException consume) {
                     // Ignore
                 }
             }
@@ -124,47 +169,146 @@ public interface Beans {
             return Optional.empty();
         }
 
-        private Optional<C> unapplyFieldValue(T object, Field field) {
-            if (Modifier.isPublic(field.getModifiers())) {
-                return unapplyDirectFieldValue(object, field);
-            } else {
-                return unapplyGetterFieldValue(object, field);
+        @SuppressWarnings("unchecked")
+        private boolean unapplyValue(Object value, Captures captures) {
+            if (value != BeanAccessors.NONE) {
+                try {
+                    return valueCase.unapply((R) value, captures);
+                } catch (ClassCastException consume) {
+                    // Ignore
+                }
             }
+
+            return false;
         }
 
-        private Optional<C> unapplyDirectFieldValue(T object, Field field) {
-            try {
-                //noinspection unchecked
-                return valueCase.unapply((R) field.get(object));
-            } catch (IllegalAccessException | ClassCastException consume) {
-                // Ignore
-            }
+        private boolean unapplyName(String name) {
+            return nameCase.unapply(name, Captures.ignore());
+        }
+    }
 
-            return Optional.empty();
+    class BeanAttWithoutCapture<T, R, C> extends BeanAtt<T, R, Result.WithoutCapture<C>> implements Case.WithoutCapture<T, C> {
+        public BeanAttWithoutCapture(Case<String, ?> nameCase, Case<R, Result.WithoutCapture<C>> valueCase) {
+            super(nameCase, valueCase);
         }
+    }
+
+    class BeanAttWithCapture<T, R, C> extends BeanAtt<T, R, Result.WithCapture<C>> implements Case.WithCapture<T, C> {
+        public BeanAttWithCapture(Case<String, ?> nameCase, Case<R, Result.WithCapture<C>> valueCase) {
+            super(nameCase, valueCase);
+        }
+    }
+
+    // =================================================================================================================
+    // Bean attributes case class
+    // =================================================================================================================
+
+    /**
+     * Case accepting a bean when all attribute cases accept it. The accessors of the
+     * attributes named by a constant are resolved once per bean class and the attributes
+     * are evaluated in order until the first failure. Other cases are applied to the bean.
+     * The kept values, i.e. the captures or all values when there is no capture, are
+     * combined in a TupleN.
+     *
+     * @param <T> The matched bean type
+     * @param <C> The case result type
+     */
+    class BeanAtts<T, C> implements Case<T, C> {
+
+        private final Case<T, ?>[] attributes;
+        private final boolean withCapture;
+        private final boolean[] kept;
+        private final int arity;
+        private final ClassValue<MethodHandle[][]> accessors;
+
+        @SuppressWarnings("unchecked")
+        public BeanAtts(Case<T, ?>[] attributes, boolean withCapture) {
+            this.attributes = attributes.clone();
+            this.withCapture = withCapture;
+            this.kept = new boolean[attributes.length];
+
+            int arity = 0;
+            for (int index = 0; index < attributes.length; index++) {
+                kept[index] = !withCapture || attributes[index] instanceof Case.WithCapture;
+                arity += kept[index] ? 1 : 0;
+            }
+            this.arity = arity;
+
+            this.accessors = new ClassValue<MethodHandle[][]>() {
+                @Override
+                protected MethodHandle[][] computeValue(Class<?> type) {
+                    final MethodHandle[][] accessors = new MethodHandle[BeanAtts.this.attributes.length][];
+                    for (int index = 0; index < accessors.length; index++) {
+                        final Case<T, ?> attribute = BeanAtts.this.attributes[index];
+                        accessors[index] = attribute instanceof BeanAtt ? ((BeanAtt<T, ?, ?>) attribute).accessors(type) : null;
+                    }
+                    return accessors;
+                }
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Optional<C> unapply(T object) {
+            final Captures captures = Captures.local();
+            final int size = captures.size();
 
-        private Optional<C> unapplyGetterFieldValue(T object, Field field) {
             try {
-                final Method methodDef = object.getClass().getMethod(getGetterName(field));
-                //noinspection unchecked
-                return valueCase.unapply((R) methodDef.invoke(object));
-            } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | ClassCastException consume) {
-                // Ignore
+                if (unapply(object, captures)) {
+                    final TupleN value = captures.pop();
+                    return Optional.of((C) (withCapture ? Result.successWithCapture(value) : Result.success(value)));
+                }
+
+                return Optional.empty();
+            } finally {
+                captures.reset(size);
             }
-            return Optional.empty();
         }
 
-        private String getGetterName(Field field) {
-            return "get" + field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
+        @Override
+        public boolean unapply(T object, Captures captures) {
+            if (object == null) {
+                return false;
+            }
+
+            final MethodHandle[][] accessors = this.accessors.get(object.getClass());
+
+            if (captures.isIgnored()) {
+                for (int index = 0; index < attributes.length; index++) {
+                    if (!unapply(index, object, accessors[index], captures)) {
+                        return false;
+                    }
+                }
+
+                return true;
+            }
+
+            final int size = captures.size();
+            for (int index = 0; index < attributes.length; index++) {
+                if (!unapply(index, object, accessors[index], kept[index] ? captures : Captures.ignore())) {
+                    captures.reset(size);
+                    return false;
+                }
+            }
+
+            final Object[] values = new Object[arity];
+            for (int index = arity - 1; index >= 0; index--) {
+                values[index] = captures.pop();
+            }
+            captures.push(new TupleN(values));
+
+            return true;
         }
 
-        private String getFieldName(Method method) {
-            final String name = method.getName();
-            if (name.startsWith("get") && name.length() > 3) {
-                return name.substring(3, 4).toLowerCase() + name.substring(4);
-            } else {
-                return null;
+        // =============================================================================================================
+
+        @SuppressWarnings("unchecked")
+        private boolean unapply(int index, T object, MethodHandle[] accessors, Captures captures) {
+            if (accessors == null) {
+                return attributes[index].unapply(object, captures);
             }
+
+            return ((BeanAtt<T, ?, ?>) attributes[index]).unapply(object, accessors, captures);
         }
     }
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases.lang;
+
+import java.util.Arrays;
+import java.util.function.DoublePredicate;
+
+/**
+ * Patterns dedicated to double values. Such patterns are evaluated without boxing the
+ * matched value. Constants are compared like Double.equals does i.e. NaN is equal to
+ * itself and 0.0 is not equal to -0.0.
+ */
+public interface DoubleCase extends DoublePredicate {
+
+    static DoubleCase Any() {
+        return value -> true;
+    }
+
+    static Constant Constant(double value) {
+        return new Constant(value);
+    }
+
+    /**
+     * @param lower The lower bound, included
+     * @param upper The upper bound, included
+     * @return a pattern accepting values between the bounds
+     */
+    static DoubleCase Between(double lower, double upper) {
+        return value -> lower <= value && value <= upper;
+    }
+
+    static DoubleCase AnyOf(double... values) {
+        final double[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+        return value -> Arrays.binarySearch(sorted, value) >= 0;
+    }
+
+    // =================================================================================================================
+    // Constant case class
+    // =================================================================================================================
+
+    final class Constant implements DoubleCase {
+
+        private final double value;
+        private final long bits;
+
+        public Constant(double value) {
+            this.value = value;
+            this.bits = Double.doubleToLongBits(value);
+        }
+
+        public double value() {
+            return value;
+        }
+
+        @Override
+        public boolean test(double value) {
+            return Double.doubleToLongBits(value) == bits;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases.lang;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Patterns dedicated to long values. Such patterns are evaluated without boxing the
+ * matched value.
+ */
+public interface LongCase extends LongPredicate {
+
+    static LongCase Any() {
+        return value -> true;
+    }
+
+    static Constant Constant(long value) {
+        return new Constant(value);
+    }
+
+    /**
+     * @param lower The lower bound, included
+     * @param upper The upper bound, included
+     * @return a pattern accepting values between the bounds
+     */
+    static LongCase Between(long lower, long upper) {
+        return value -> lower <= value && value <= upper;
+    }
+
+    static LongCase AnyOf(long... values) {
+        final long[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+        return value -> Arrays.binarySearch(sorted, value) >= 0;
+    }
+
+    /**
+     * @param mask The tested bits
+     * @param bits The expected value of the tested bits
+     * @return a pattern accepting values which masked bits are the expected ones
+     */
+    static LongCase Mask(long mask, long bits) {
+        return value -> (value & mask) == bits;
+    }
+
+    /**
+     * @param mask The tested bits
+     * @return a pattern accepting values having all the tested bits set
+     */
+    static LongCase AllBits(long mask) {
+        return Mask(mask, mask);
+    }
+
+    /**
+     * @param mask The tested bits
+     * @return a pattern accepting values having at least one of the tested bits set
+     */
+    static LongCase AnyBits(long mask) {
+        return value -> (value & mask) != 0;
+    }
+
+    /**
+     * @param mask The tested bits
+     * @return a pattern accepting values having none of the tested bits set
+     */
+    static LongCase NoBits(long mask) {
+        return Mask(mask, 0);
+    }
+
+    // =================================================================================================================
+    // Constant case class
+    // =================================================================================================================
+
+    final class Constant implements LongCase {
+
+        private final long value;
+
+        public Constant(long value) {
+            this.value = value;
+        }
+
+        public long value() {
+            return value;
+        }
+
+        @Override
+        public boolean test(long value) {
+            return this.value == value;
+        }
+    }
+}
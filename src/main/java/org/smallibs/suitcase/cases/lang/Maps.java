@@ -18,11 +18,14 @@
 
 package org.smallibs.suitcase.cases.lang;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Result;
+import org.smallibs.suitcase.utils.Functions.Function2;
 import org.smallibs.suitcase.utils.Pair;
 
 import java.util.Map;
+import java.util.Optional;
 
 import static org.smallibs.suitcase.cases.core.Cases.Constant;
 
@@ -49,23 +52,93 @@ public interface Maps {
     }
 
     static <T1, T2, C1, C2> Case.WithoutCapture<Map<T1, T2>, Pair<C1, C2>> Entry(Case.WithoutCapture<T1, C1> o1, Case.WithoutCapture<T2, C2> o2) {
-        return map -> map.keySet().stream().filter(k -> o1.unapply(k).isPresent()).findFirst().
-                flatMap(k -> o2.unapply(map.get(k)).map(c2 -> Result.success(new Pair<>(o1.unapply(k).get().resultValue(), c2.resultValue()))));
+        return Case.WithoutCapture.adapt(new MapEntry<>(
+                (c1, c2) -> Result.success(new Pair<>(c1.resultValue(), c2.resultValue())),
+                true,
+                true,
+                o1,
+                o2));
     }
 
     static <T1, T2, C1, C2> Case.WithCapture<Map<T1, T2>, C1> Entry(Case.WithCapture<T1, C1> o1, Case.WithoutCapture<T2, C2> o2) {
-        return map -> map.keySet().stream().filter(k -> o1.unapply(k).isPresent()).findFirst().
-                flatMap(k -> o2.unapply(map.get(k)).flatMap(c2 -> o1.unapply(k)));
+        return Case.WithCapture.adapt(new MapEntry<>(
+                (c1, c2) -> c1,
+                true,
+                false,
+                o1,
+                o2));
     }
 
     static <T1, T2, C1, C2> Case.WithCapture<Map<T1, T2>, C2> Entry(Case.WithoutCapture<T1, C1> o1, Case.WithCapture<T2, C2> o2) {
-        return map -> map.keySet().stream().filter(k -> o1.unapply(k).isPresent()).findFirst().
-                flatMap(k -> o2.unapply(map.get(k)));
+        return Case.WithCapture.adapt(new MapEntry<>(
+                (c1, c2) -> c2,
+                false,
+                true,
+                o1,
+                o2));
     }
 
     static <T1, T2, C1, C2> Case.WithCapture<Map<T1, T2>, Pair<C1, C2>> Entry(Case.WithCapture<T1, C1> o1, Case.WithCapture<T2, C2> o2) {
-        return map -> map.keySet().stream().filter(k -> o1.unapply(k).isPresent()).findFirst().
-                flatMap(k -> o2.unapply(map.get(k)).map(c2 -> Result.successWithCapture(new Pair<>(o1.unapply(k).get().resultValue(), c2.resultValue()))));
+        return Case.WithCapture.adapt(new MapEntry<>(
+                (c1, c2) -> Result.successWithCapture(new Pair<>(c1.resultValue(), c2.resultValue())),
+                true,
+                true,
+                o1,
+                o2));
+    }
+
+    // =================================================================================================================
+    // Map entry case class
+    // =================================================================================================================
+
+    class MapEntry<T1, T2, C1, C2, C> implements Case<Map<T1, T2>, C> {
+        private final Function2<C1, C2, C> combination;
+        private final boolean keep1;
+        private final boolean keep2;
+        private final Case<T1, C1> keyCase;
+        private final Case<T2, C2> valueCase;
+
+        public MapEntry(Function2<C1, C2, C> combination, boolean keep1, boolean keep2, Case<T1, C1> keyCase, Case<T2, C2> valueCase) {
+            this.combination = combination;
+            this.keep1 = keep1;
+            this.keep2 = keep2;
+            this.keyCase = keyCase;
+            this.valueCase = valueCase;
+        }
+
+        @Override
+        public Optional<C> unapply(Map<T1, T2> map) {
+            for (T1 key : map.keySet()) {
+                final Optional<C1> c1 = keyCase.unapply(key);
+                if (c1.isPresent()) {
+                    return valueCase.unapply(map.get(key)).map(c2 -> combination.apply(c1.get(), c2));
+                }
+            }
+
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean unapply(Map<T1, T2> map, Captures captures) {
+            final Captures captures1 = keep1 ? captures : Captures.ignore();
+            for (T1 key : map.keySet()) {
+                if (keyCase.unapply(key, captures1)) {
+                    if (valueCase.unapply(map.get(key), keep2 ? captures : Captures.ignore())) {
+                        if (keep1 && keep2) {
+                            captures.pair();
+                        }
+                        return true;
+                    }
+
+                    if (keep1) {
+                        captures.pop();
+                    }
+                    return false;
+                }
+            }
+
+            return false;
+        }
     }
 
 }
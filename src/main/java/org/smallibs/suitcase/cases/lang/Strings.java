@@ -1,5 +1,6 @@
 package org.smallibs.suitcase.cases.lang;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Case.WithoutCapture;
 import org.smallibs.suitcase.cases.Result;
@@ -27,14 +28,31 @@ public interface Strings {
         public Optional<Result.WithoutCapture<List<String>>> unapply(String s) {
             final Matcher matcher = expression.matcher(s);
             if (matcher.matches()) {
-                final List<String> strings = new ArrayList<>();
-                for (int i = 0; i <= matcher.groupCount(); i += 1) {
-                    strings.add(s.substring(matcher.start(i), matcher.end(i)));
-                }
-                return Optional.of(Result.success(strings));
+                return Optional.of(Result.success(groups(s, matcher)));
             } else {
                 return Optional.empty();
             }
         }
+
+        @Override
+        public boolean unapply(String s, Captures captures) {
+            final Matcher matcher = expression.matcher(s);
+            if (matcher.matches()) {
+                if (!captures.isIgnored()) {
+                    captures.push(groups(s, matcher));
+                }
+                return true;
+            }
+
+            return false;
+        }
+
+        private List<String> groups(String s, Matcher matcher) {
+            final List<String> strings = new ArrayList<>();
+            for (int i = 0; i <= matcher.groupCount(); i += 1) {
+                strings.add(s.substring(matcher.start(i), matcher.end(i)));
+            }
+            return strings;
+        }
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Shape;
+import org.smallibs.suitcase.cases.core.Cases.Constant;
+
+/**
+ * The AbstractRule gives the properties of a rule used to build an evaluation plan
+ * and to analyze a rule set.
+ */
+
+abstract class AbstractRule implements Dispatch.Entry {
+
+    private final Class<?> typeGuard;
+    private final Constant<?> constant;
+    private final Shape shape;
+    private final boolean conditional;
+
+    /**
+     * The constructor
+     *
+     * @param aCase The rule pattern
+     * @param when  The rule condition or null
+     */
+    AbstractRule(Case<?, ?> aCase, Object when) {
+        this.typeGuard = aCase.typeGuard().orElse(null);
+        this.constant = aCase instanceof Constant && when == null ? (Constant<?>) aCase : null;
+        this.shape = aCase.shape();
+        this.conditional = when != null;
+    }
+
+    /**
+     * The constructor
+     *
+     * @param rule The rule giving the properties
+     */
+    AbstractRule(AbstractRule rule) {
+        this.typeGuard = rule.typeGuard;
+        this.constant = rule.constant;
+        this.shape = rule.shape;
+        this.conditional = rule.conditional;
+    }
+
+    /**
+     * @return the rule type guard or null if the rule is not guarded
+     */
+    Class<?> typeGuard() {
+        return typeGuard;
+    }
+
+    /**
+     * @return the shape of the rule pattern
+     */
+    Shape shape() {
+        return shape;
+    }
+
+    /**
+     * @return true if the rule has a condition
+     */
+    boolean isConditional() {
+        return conditional;
+    }
+
+    /**
+     * @return a short rule description
+     */
+    String describe() {
+        if (typeGuard != null && shape == Shape.unknown()) {
+            return typeGuard.getName();
+        } else {
+            return shape.toString();
+        }
+    }
+
+    @Override
+    public boolean accepts(Class<?> type) {
+        return typeGuard == null || type.isAssignableFrom(typeGuard);
+    }
+
+    @Override
+    public boolean isExact(Class<?> type) {
+        return typeGuard == null || typeGuard == type;
+    }
+
+    @Override
+    public boolean isConstant() {
+        return constant != null;
+    }
+
+    @Override
+    public Object constant() {
+        return constant.value();
+    }
+
+    @Override
+    public boolean isDisjoint(Dispatch.Entry entry) {
+        return entry instanceof AbstractRule && shape.isDisjoint(((AbstractRule) entry).shape);
+    }
+}
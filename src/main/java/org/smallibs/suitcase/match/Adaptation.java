@@ -0,0 +1,109 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Adaptation maintains an evaluation plan where disjoint rules are sorted by
+ * observed hit frequency. The plan is periodically rebuilt from the hit counters.
+ */
+
+final class Adaptation {
+
+    /**
+     * Default number of hits between two plan updates
+     */
+    static final int PERIOD = 1 << 16;
+
+    private final List<? extends Dispatch.Entry> entries;
+    private final boolean[] shadowed;
+    private final int period;
+    private final LongAdder[] hits;
+    private volatile Dispatch dispatch;
+
+    /**
+     * Hits since the last plan update. Updates are racy on purpose since a lost
+     * update only delays the next plan update.
+     */
+    private int ticks;
+
+    /**
+     * The constructor
+     *
+     * @param entries  The rules
+     * @param shadowed The rules which can never be applied
+     * @param period   The number of hits between two plan updates
+     */
+    Adaptation(List<? extends Dispatch.Entry> entries, boolean[] shadowed, int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+
+        this.entries = entries;
+        this.shadowed = shadowed;
+        this.period = period;
+        this.hits = new LongAdder[entries.size()];
+        this.dispatch = new Dispatch(entries, null, shadowed);
+        this.ticks = 0;
+
+        for (int index = 0; index < hits.length; index++) {
+            hits[index] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return the number of hits between two plan updates
+     */
+    int period() {
+        return period;
+    }
+
+    /**
+     * @return the current evaluation plan
+     */
+    Dispatch dispatch() {
+        return dispatch;
+    }
+
+    /**
+     * @param index The index of the applied rule
+     */
+    void hit(int index) {
+        hits[index].increment();
+
+        if (++ticks >= period) {
+            ticks = 0;
+            adapt();
+        }
+    }
+
+    /**
+     * Rebuilds the evaluation plan using the current hit counters
+     */
+    synchronized void adapt() {
+        final long[] weights = new long[hits.length];
+        for (int index = 0; index < hits.length; index++) {
+            weights[index] = hits[index].sum();
+        }
+
+        this.dispatch = new Dispatch(entries, weights, shadowed);
+    }
+}
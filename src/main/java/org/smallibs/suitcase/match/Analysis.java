@@ -0,0 +1,231 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.Shape;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The Analysis gives structural properties of a rule set computed from the shape of
+ * the rule patterns. Results are conservative: a rule is reported as shadowed or two
+ * rules as disjoint only when it can be proven.
+ * <ul>
+ * <li>A rule is shadowed when a previous rule without condition accepts each object
+ * it accepts. Such rule is never applied and is removed from compiled evaluation plans.</li>
+ * <li>Disjoint groups are consecutive rules which cannot accept the same object. They
+ * can be evaluated in any order. Since a type guard also accepts instances of the
+ * superclasses of its type, distinct types do not make rules disjoint; distinct
+ * constants, possibly deconstructed by the same extractors, do.</li>
+ * <li>The rule set is exhaustive when a rule without condition accepts any object or,
+ * when the matched hierarchy is declared, each of its runtime classes.</li>
+ * </ul>
+ */
+
+public final class Analysis {
+
+    private final String[] rules;
+    private final List<Integer> shadowedRules;
+    private final List<List<Integer>> disjointGroups;
+    private final List<Class<?>> uncoveredTypes;
+    private final boolean exhaustive;
+
+    /**
+     * The constructor
+     *
+     * @param rules     The rules
+     * @param hierarchy The runtime classes of the matched objects, if known
+     */
+    Analysis(AbstractRule[] rules, Class<?>[] hierarchy) {
+        this.rules = new String[rules.length];
+        for (int index = 0; index < rules.length; index++) {
+            this.rules[index] = rules[index].describe();
+        }
+
+        final boolean[] shadowed = shadowed(rules);
+        final List<Integer> shadowedRules = new ArrayList<>();
+        for (int index = 0; index < rules.length; index++) {
+            if (shadowed[index]) {
+                shadowedRules.add(index);
+            }
+        }
+
+        this.shadowedRules = Collections.unmodifiableList(shadowedRules);
+        this.disjointGroups = Collections.unmodifiableList(disjointGroups(rules));
+        this.uncoveredTypes = Collections.unmodifiableList(uncoveredTypes(rules, hierarchy));
+        this.exhaustive = isExhaustive(rules, hierarchy.length > 0 && uncoveredTypes.isEmpty());
+    }
+
+    /**
+     * @return the indexes of the rules which can never be applied
+     */
+    public List<Integer> shadowedRules() {
+        return shadowedRules;
+    }
+
+    /**
+     * @return the rule indexes grouped by consecutive pairwise disjoint rules
+     */
+    public List<List<Integer>> disjointGroups() {
+        return disjointGroups;
+    }
+
+    /**
+     * @return the declared runtime classes which are not accepted by a rule without condition
+     */
+    public List<Class<?>> uncoveredTypes() {
+        return uncoveredTypes;
+    }
+
+    /**
+     * @return true if it is proven that each matched object is accepted by a rule
+     */
+    public boolean isExhaustive() {
+        return exhaustive;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < rules.length; index++) {
+            builder.append(index).append(": ").append(rules[index]);
+            if (shadowedRules.contains(index)) {
+                builder.append(" [shadowed]");
+            }
+            builder.append('\n');
+        }
+
+        builder.append("disjoint groups: ").append(disjointGroups).append('\n');
+        builder.append("exhaustive: ").append(exhaustive);
+        if (!uncoveredTypes.isEmpty()) {
+            builder.append(" uncovered: ").append(uncoveredTypes);
+        }
+
+        return builder.toString();
+    }
+
+    // =================================================================================================================
+
+    /**
+     * @param rules The rules
+     * @return for each rule true if it's shadowed by a previous rule
+     */
+    static boolean[] shadowed(AbstractRule[] rules) {
+        final boolean[] shadowed = new boolean[rules.length];
+        final Set<Object> constants = new HashSet<>();
+        final List<Shape> covering = new ArrayList<>();
+
+        for (int index = 0; index < rules.length; index++) {
+            final AbstractRule rule = rules[index];
+
+            if (rule.isConstant() && isHashable(rule.constant())) {
+                // Constants are only covered by equal constants or non constant shapes
+                shadowed[index] = !constants.add(rule.constant()) || isCovered(covering, rule.shape());
+            } else {
+                shadowed[index] = isCovered(covering, rule.shape());
+                if (!rule.isConditional()) {
+                    covering.add(rule.shape());
+                }
+            }
+        }
+
+        return shadowed;
+    }
+
+    private static boolean isCovered(List<Shape> covering, Shape shape) {
+        for (Shape previous : covering) {
+            if (previous.covers(shape)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHashable(Object constant) {
+        return constant != null && !constant.getClass().isArray();
+    }
+
+    private static List<List<Integer>> disjointGroups(AbstractRule[] rules) {
+        final List<List<Integer>> groups = new ArrayList<>();
+
+        int start = 0;
+        while (start < rules.length) {
+            final List<Integer> group = new ArrayList<>();
+            group.add(start);
+
+            int end = start + 1;
+            while (end < rules.length && isDisjoint(rules, start, end)) {
+                group.add(end);
+                end += 1;
+            }
+
+            groups.add(Collections.unmodifiableList(group));
+            start = end;
+        }
+
+        return groups;
+    }
+
+    private static boolean isDisjoint(AbstractRule[] rules, int start, int end) {
+        for (int index = start; index < end; index++) {
+            if (!rules[index].isDisjoint(rules[end])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Class<?>> uncoveredTypes(AbstractRule[] rules, Class<?>[] hierarchy) {
+        final List<Class<?>> uncovered = new ArrayList<>();
+
+        for (Class<?> type : hierarchy) {
+            boolean covered = false;
+            for (AbstractRule rule : rules) {
+                if (!rule.isConditional() && rule.shape().covers(type)) {
+                    covered = true;
+                    break;
+                }
+            }
+
+            if (!covered) {
+                uncovered.add(type);
+            }
+        }
+
+        return uncovered;
+    }
+
+    private static boolean isExhaustive(AbstractRule[] rules, boolean hierarchyCovered) {
+        if (hierarchyCovered) {
+            return true;
+        }
+
+        for (AbstractRule rule : rules) {
+            if (!rule.isConditional() && rule.shape().covers(Shape.any())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * The Cache is a bounded concurrent map using a segmented LRU eviction policy. Keys are
+ * spread over independently locked segments. In each segment new entries are admitted
+ * in a probation area and promoted to a protected area when accessed again, so entries
+ * used once do not evict frequently used ones.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+
+final class Cache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_WEIGHT = 64;
+
+    private final Segment<K, V>[] segments;
+    private final ToLongFunction<? super K> weigher;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * The constructor
+     *
+     * @param maximumWeight The maximum weight of the cached entries
+     * @param weigher       The key weight function
+     */
+    @SuppressWarnings("unchecked")
+    Cache(long maximumWeight, ToLongFunction<? super K> weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximum weight must be positive");
+        }
+
+        int count = 1;
+        while (count < MAX_SEGMENTS && maximumWeight / (count * 2) >= MIN_SEGMENT_WEIGHT) {
+            count *= 2;
+        }
+
+        this.segments = new Segment[count];
+        this.weigher = weigher;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+
+        for (int index = 0; index < count; index++) {
+            segments[index] = new Segment<>((maximumWeight + count - 1) / count);
+        }
+    }
+
+    /**
+     * @param key The key
+     * @return the cached value or null if the key is not cached
+     */
+    V get(K key) {
+        final V value = segmentOf(key).get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * @param key   The key
+     * @param value The value, cannot be null
+     */
+    void put(K key, V value) {
+        final long weight = weigher.applyAsLong(key);
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight must not be negative");
+        }
+
+        evictions.add(segmentOf(key).put(key, value, weight));
+    }
+
+    void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    // =================================================================================================================
+
+    private Segment<K, V> segmentOf(K key) {
+        final int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+
+        private Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final long maximumWeight;
+        private final long maximumProtectedWeight;
+        private final LinkedHashMap<K, Entry<V>> probation;
+        private final LinkedHashMap<K, Entry<V>> protection;
+        private long probationWeight;
+        private long protectedWeight;
+
+        private Segment(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+            this.maximumProtectedWeight = maximumWeight * 4 / 5;
+            this.probation = new LinkedHashMap<>();
+            this.protection = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        private synchronized V get(K key) {
+            final Entry<V> entry = protection.get(key);
+            if (entry != null) {
+                return entry.value;
+            }
+
+            final Entry<V> candidate = probation.remove(key);
+            if (candidate == null) {
+                return null;
+            }
+
+            // Second access: the entry is promoted
+            probationWeight -= candidate.weight;
+            protection.put(key, candidate);
+            protectedWeight += candidate.weight;
+
+            while (protectedWeight > maximumProtectedWeight && protection.size() > 1) {
+                demote();
+            }
+
+            return candidate.value;
+        }
+
+        private synchronized long put(K key, V value, long weight) {
+            if (weight > maximumWeight || protection.containsKey(key) || probation.containsKey(key)) {
+                return 0;
+            }
+
+            probation.put(key, new Entry<>(value, weight));
+            probationWeight += weight;
+
+            long evictions = 0;
+            while (probationWeight + protectedWeight > maximumWeight) {
+                evict(probation.isEmpty() ? protection : probation);
+                evictions += 1;
+            }
+            return evictions;
+        }
+
+        private synchronized void clear() {
+            probation.clear();
+            protection.clear();
+            probationWeight = 0;
+            protectedWeight = 0;
+        }
+
+        private synchronized int size() {
+            return probation.size() + protection.size();
+        }
+
+        private void demote() {
+            final Iterator<Map.Entry<K, Entry<V>>> eldest = protection.entrySet().iterator();
+            final Map.Entry<K, Entry<V>> entry = eldest.next();
+            eldest.remove();
+            protectedWeight -= entry.getValue().weight;
+            probation.put(entry.getKey(), entry.getValue());
+            probationWeight += entry.getValue().weight;
+        }
+
+        private void evict(LinkedHashMap<K, Entry<V>> area) {
+            final Iterator<Map.Entry<K, Entry<V>>> eldest = area.entrySet().iterator();
+            final Map.Entry<K, Entry<V>> entry = eldest.next();
+            eldest.remove();
+            if (area == probation) {
+                probationWeight -= entry.getValue().weight;
+            } else {
+                protectedWeight -= entry.getValue().weight;
+            }
+        }
+    }
+}
@@ -0,0 +1,564 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.Captures;
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Result;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The CompiledMatcher defines an immutable pattern matching rule set. It's
+ * built from a Matcher and can be safely shared between threads.
+ *
+ * @param <T> The matched object type
+ * @param <R> The matching result type
+ */
+
+public final class CompiledMatcher<T, R> implements Case.WithoutCapture<T, R>, AutoCloseable {
+
+    /**
+     * The rule set
+     */
+    private final Matcher.Rule<T, R>[] rules;
+
+    /**
+     * The evaluation plan
+     */
+    private final Dispatch dispatch;
+
+    /**
+     * The metrics or null if the matcher is not instrumented
+     */
+    private final MatcherMetrics metrics;
+
+    /**
+     * The adaptive evaluation plan or null if the matcher is not adaptive
+     */
+    private final Adaptation adaptation;
+
+    /**
+     * The concrete classes of the sealed hierarchy of the matched objects, if any
+     */
+    private final Class<?>[] leaves;
+
+    /**
+     * The constructor
+     *
+     * @param rules The rules to be compiled
+     */
+    CompiledMatcher(List<Matcher.Rule<T, R>> rules) {
+        this(rules, null, false, 0, new Class<?>[0]);
+    }
+
+    /**
+     * The constructor
+     *
+     * @param rules   The rules to be compiled
+     * @param metrics  The metrics fed by the rules or null
+     * @param adaptive True if the matcher is adaptive
+     * @param period   The number of hits between two evaluation plan updates of an adaptive matcher
+     * @param leaves   The concrete classes of the sealed hierarchy of the matched objects, if any
+     */
+    @SuppressWarnings("unchecked")
+    private CompiledMatcher(List<Matcher.Rule<T, R>> rules, MatcherMetrics metrics, boolean adaptive, int period, Class<?>[] leaves) {
+        this.rules = rules.toArray(new Matcher.Rule[rules.size()]);
+
+        final boolean[] shadowed = Analysis.shadowed(this.rules);
+        this.dispatch = new Dispatch(Arrays.asList(this.rules), null, shadowed);
+        this.metrics = metrics;
+        this.adaptation = !adaptive ? null : new Adaptation(Arrays.asList(this.rules), shadowed, period);
+        this.leaves = leaves;
+
+        for (Class<?> leaf : leaves) {
+            this.dispatch.steps(leaf);
+        }
+    }
+
+    /**
+     * Main method performing the pattern matching.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by an accepted rule during pattern matching process
+     * @throws MatchingException when no pattern matching rule can be applied
+     */
+    @SuppressWarnings("unchecked")
+    public R match(T object) throws MatchingException {
+        final Object result = evaluate(object);
+        if (result != Matcher.Rule.NO_MATCH) {
+            return (R) result;
+        }
+
+        throw new MatchingException();
+    }
+
+    /**
+     * Pattern matching returning a default value when no rule can be applied.
+     *
+     * @param object    The object to be matched
+     * @param otherwise The value returned when no rule can be applied
+     * @return a computation result done by an accepted rule or the default value
+     */
+    @SuppressWarnings("unchecked")
+    public R matchOrElse(T object, R otherwise) {
+        final Object result = evaluate(object);
+        return result != Matcher.Rule.NO_MATCH ? (R) result : otherwise;
+    }
+
+    /**
+     * Pattern matching denoting a failure with an empty result.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by an accepted rule or nothing if no rule can be applied
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<R> matchOptional(T object) {
+        final Object result = evaluate(object);
+        return result != Matcher.Rule.NO_MATCH ? Optional.ofNullable((R) result) : Optional.empty();
+    }
+
+    /**
+     * Pattern matching performed by the default executor. See Matcher.defaultExecutor(Executor).
+     *
+     * @param object The object to be matched
+     * @return a future completed by the accepted rule result or by a MatchingException
+     */
+    public CompletableFuture<R> matchAsync(T object) {
+        return matchAsync(object, Deferred.executor());
+    }
+
+    /**
+     * Pattern matching performed by a given executor. Results of rules defined with
+     * thenAsync are composed without waiting for their completion.
+     *
+     * @param object   The object to be matched
+     * @param executor The executor performing the pattern matching
+     * @return a future completed by the accepted rule result or by a MatchingException
+     */
+    public CompletableFuture<R> matchAsync(T object, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> attempt(object), executor).thenCompose(result ->
+                result != Matcher.Rule.NO_MATCH ? Deferred.<R>stage(result) : Deferred.<R>failed(new MatchingException())
+        );
+    }
+
+    /**
+     * Checks if a rule can be applied. Patterns and conditions are evaluated but the
+     * callback of the accepted rule is not called.
+     *
+     * @param object The object to be matched
+     * @return true if a rule can be applied to the object
+     */
+    public boolean isDefinedAt(T object) {
+        if (object == null) {
+            for (int index = 0; index < rules.length; index++) {
+                if (rules[index].test(null)) {
+                    return true;
+                }
+            }
+        } else {
+            final Dispatch dispatch = currentDispatch();
+            final int[] steps = dispatch.steps(object.getClass());
+            for (int step = 0; step < steps.length; step++) {
+                final int index = steps[step] < 0 ? dispatch.lookup(steps[step], object) : steps[step];
+                if (index >= 0 && rules[index].test(object)) {
+                    return true;
+                }
+            }
+        }
+
+        if (metrics != null) {
+            metrics.miss();
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a rule can be applied. See isDefinedAt(Object).
+     *
+     * @param object The object to be matched
+     * @return true if a rule can be applied to the object
+     */
+    public boolean test(T object) {
+        return isDefinedAt(object);
+    }
+
+    // =================================================================================================================
+    // Bulk pattern matching
+    // =================================================================================================================
+
+    /**
+     * @return a function performing the pattern matching and returning an empty result
+     * when no rule can be applied
+     */
+    public Function<T, Optional<R>> lift() {
+        return this::matchOptional;
+    }
+
+    /**
+     * @return a function performing the pattern matching and throwing a MatchingException
+     * when no rule can be applied
+     */
+    public Function<T, R> mapping() {
+        return this::match;
+    }
+
+    /**
+     * @param otherwise The value returned when no rule can be applied
+     * @return a function performing the pattern matching
+     */
+    public Function<T, R> mapping(R otherwise) {
+        return object -> matchOrElse(object, otherwise);
+    }
+
+    /**
+     * Pattern matching applied to each object.
+     *
+     * @param objects The objects to be matched
+     * @return the computation results in the objects order
+     * @throws MatchingException when no pattern matching rule can be applied to an object
+     */
+    public List<R> matchAll(List<? extends T> objects) throws MatchingException {
+        final List<R> results = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            results.add(match(object));
+        }
+        return results;
+    }
+
+    /**
+     * Pattern matching applied to each object.
+     *
+     * @param objects   The objects to be matched
+     * @param otherwise The value used when no rule can be applied to an object
+     * @return the computation results in the objects order
+     */
+    public List<R> matchAll(List<? extends T> objects, R otherwise) {
+        final List<R> results = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            results.add(matchOrElse(object, otherwise));
+        }
+        return results;
+    }
+
+    /**
+     * Pattern matching applied to each object.
+     *
+     * @param in  The objects to be matched
+     * @param out The computation results at the same index
+     * @throws MatchingException when no pattern matching rule can be applied to an object
+     */
+    public void matchAll(T[] in, R[] out) throws MatchingException {
+        for (int index = 0; index < in.length; index++) {
+            out[index] = match(in[index]);
+        }
+    }
+
+    /**
+     * Pattern matching applied to each object.
+     *
+     * @param in        The objects to be matched
+     * @param out       The computation results at the same index
+     * @param otherwise The value used when no rule can be applied to an object
+     */
+    public void matchAll(T[] in, R[] out, R otherwise) {
+        for (int index = 0; index < in.length; index++) {
+            out[index] = matchOrElse(in[index], otherwise);
+        }
+    }
+
+    /**
+     * Pattern matching applied to each object using the common fork join pool.
+     *
+     * @param objects   The objects to be matched
+     * @param otherwise The value used when no rule can be applied to an object
+     * @return the computation results in the objects order
+     */
+    public List<R> matchAllParallel(List<? extends T> objects, R otherwise) {
+        return objects.parallelStream().map(mapping(otherwise)).collect(Collectors.toList());
+    }
+
+    /**
+     * Pattern matching applied to each object using the common fork join pool.
+     *
+     * @param in        The objects to be matched
+     * @param out       The computation results at the same index
+     * @param otherwise The value used when no rule can be applied to an object
+     */
+    public void matchAllParallel(T[] in, R[] out, R otherwise) {
+        IntStream.range(0, in.length).parallel().forEach(index -> out[index] = matchOrElse(in[index], otherwise));
+    }
+
+    // =================================================================================================================
+    // Case<_,_> implementation
+    // =================================================================================================================
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Result.WithoutCapture<R>> unapply(T t) {
+        final Object result = evaluate(t);
+        return result != Matcher.Rule.NO_MATCH ? Optional.of(Result.success((R) result)) : Optional.empty();
+    }
+
+    @Override
+    public boolean unapply(T t, Captures captures) {
+        if (captures.isIgnored()) {
+            return isDefinedAt(t);
+        }
+
+        final Object result = evaluate(t);
+        if (result != Matcher.Rule.NO_MATCH) {
+            captures.push(result);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the rules in declaration order
+     */
+    List<Matcher.Rule<T, R>> rules() {
+        return Arrays.asList(rules);
+    }
+
+    /**
+     * Provides a matcher performing the same pattern matching using a method handle
+     * tree dedicated to this rule set.
+     *
+     * @return the generated matcher
+     */
+    public GeneratedMatcher<T, R> generate() {
+        return new GeneratedMatcher<>(rules, dispatch, leaves);
+    }
+
+    /**
+     * Provides a matcher performing the same pattern matching and collecting per rule
+     * attempts, hits and sampled latencies of conditions and callbacks. The metrics are
+     * published in the platform MBean server under the given name. This matcher is not
+     * impacted: when instrumentation is not required nothing is collected.
+     * <p>
+     * The caller owns the registration: the metrics remain published until the returned
+     * matcher, or a matcher derived from it, is closed.
+     *
+     * @param name The JMX object name used to publish the metrics
+     * @return the instrumented matcher
+     * @throws IllegalArgumentException if the name is not a valid object name
+     * @throws IllegalStateException    if the metrics cannot be registered
+     */
+    public CompiledMatcher<T, R> instrument(String name) {
+        final ObjectName objectName;
+        try {
+            objectName = new ObjectName(name);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        final String[] descriptions = new String[rules.length];
+        for (int index = 0; index < rules.length; index++) {
+            descriptions[index] = rules[index].describe();
+        }
+
+        final MatcherMetrics metrics = new MatcherMetrics(objectName, descriptions);
+        final List<Matcher.Rule<T, R>> instrumented = new ArrayList<>(rules.length);
+        for (int index = 0; index < rules.length; index++) {
+            instrumented.add(rules[index].instrument(metrics.rule(index)));
+        }
+
+        metrics.register();
+
+        return new CompiledMatcher<>(instrumented, metrics, adaptation != null, period(), leaves);
+    }
+
+    /**
+     * Provides a matcher performing the same pattern matching where rules proven disjoint
+     * are periodically reordered by observed hit frequency. Since such rules cannot accept
+     * the same object the result is the one given by the declaration order.
+     *
+     * @return the adaptive matcher
+     */
+    public CompiledMatcher<T, R> adaptive() {
+        return adaptive(Adaptation.PERIOD);
+    }
+
+    /**
+     * Provides an adaptive matcher. See adaptive().
+     *
+     * @param period The number of hits between two evaluation order updates
+     * @return the adaptive matcher
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public CompiledMatcher<T, R> adaptive(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+
+        return new CompiledMatcher<>(Arrays.asList(rules), metrics, true, period, leaves);
+    }
+
+    /**
+     * @return true if the matcher reorders disjoint rules by hit frequency
+     */
+    public boolean isAdaptive() {
+        return adaptation != null;
+    }
+
+    /**
+     * Provides a matcher performing the same pattern matching dedicated to a sealed
+     * hierarchy. The evaluation plan of each concrete class of the hierarchy is computed
+     * eagerly. Only a generated matcher takes advantage of the hierarchy: the concrete
+     * classes get dense identifiers and a table switch selects the branch of each of
+     * them instead of testing each rule type guard. Other objects are matched as usual.
+     *
+     * @param root The sealed root of the matched objects
+     * @return the sealed matcher
+     * @throws IllegalArgumentException if the root is not a sealed type, which requires Java 17
+     */
+    public CompiledMatcher<T, R> sealed(Class<?> root) {
+        return new CompiledMatcher<>(Arrays.asList(rules), metrics, adaptation != null, period(), SealedHierarchy.leaves(root));
+    }
+
+    /**
+     * Provides a matcher performing the same pattern matching and keeping at most a given
+     * number of results. See MemoizedMatcher for the required contract.
+     *
+     * @param maximumSize The maximum number of cached results
+     * @return the memoized matcher
+     */
+    public MemoizedMatcher<T, R> memoize(long maximumSize) {
+        return memoize(maximumSize, object -> 1);
+    }
+
+    /**
+     * Provides a matcher performing the same pattern matching and keeping results up to
+     * a given total weight of matched objects. See MemoizedMatcher for the required contract.
+     *
+     * @param maximumWeight The maximum weight of the cached objects
+     * @param weigher       The matched object weight function
+     * @return the memoized matcher
+     */
+    public MemoizedMatcher<T, R> memoize(long maximumWeight, ToLongFunction<? super T> weigher) {
+        return new MemoizedMatcher<>(this, maximumWeight, weigher);
+    }
+
+    /**
+     * Analyzes the rule set structurally. See Analysis.
+     *
+     * @param hierarchy The runtime classes of the matched objects, if known
+     * @return the rule set analysis
+     */
+    public Analysis analyze(Class<?>... hierarchy) {
+        return new Analysis(rules, hierarchy);
+    }
+
+    /**
+     * Provides the current evaluation order for objects of a given runtime class.
+     *
+     * @param type The runtime class of the matched objects
+     * @return the indexes of the rules which can be evaluated in evaluation order
+     */
+    public List<Integer> evaluationOrder(Class<?> type) {
+        return currentDispatch().order(type);
+    }
+
+    /**
+     * @return the metrics if the matcher is instrumented
+     */
+    public Optional<MatcherMetrics> metrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    /**
+     * Unregisters the metrics of an instrumented matcher from the platform MBean server.
+     * The metrics are shared with the matchers derived from this one. The pattern matching
+     * remains available and nothing is done when the matcher is not instrumented.
+     */
+    @Override
+    public void close() {
+        if (metrics != null) {
+            metrics.unregister();
+        }
+    }
+
+    // =================================================================================================================
+
+    /**
+     * @param object The object to be matched
+     * @return the result of the first accepted rule or NO_MATCH
+     */
+    Object evaluate(T object) {
+        return Deferred.resolve(attempt(object));
+    }
+
+    /**
+     * @param object The object to be matched
+     * @return the result of the first accepted rule, possibly deferred, or NO_MATCH
+     */
+    private Object attempt(T object) {
+        if (object == null) {
+            for (int index = 0; index < rules.length; index++) {
+                final Object result = rules[index].match(null);
+                if (result != Matcher.Rule.NO_MATCH) {
+                    return result;
+                }
+            }
+        } else {
+            final Dispatch dispatch = currentDispatch();
+            final int[] steps = dispatch.steps(object.getClass());
+            for (int step = 0; step < steps.length; step++) {
+                final int index = steps[step] < 0 ? dispatch.lookup(steps[step], object) : steps[step];
+                if (index >= 0) {
+                    final Object result = rules[index].match(object);
+                    if (result != Matcher.Rule.NO_MATCH) {
+                        if (adaptation != null) {
+                            adaptation.hit(index);
+                        }
+                        return result;
+                    }
+                }
+            }
+        }
+
+        if (metrics != null) {
+            metrics.miss();
+        }
+
+        return Matcher.Rule.NO_MATCH;
+    }
+
+    private int period() {
+        return adaptation == null ? Adaptation.PERIOD : adaptation.period();
+    }
+
+    private Dispatch currentDispatch() {
+        return adaptation == null ? dispatch : adaptation.dispatch();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * A rule result computed asynchronously. Such results are resolved when the pattern
+ * matching is performed synchronously and composed when it's performed with matchAsync.
+ */
+
+final class Deferred {
+
+    /**
+     * The executor used for asynchronous pattern matching
+     */
+    private static volatile Executor executor = virtualThreadExecutor();
+
+    private final CompletionStage<?> stage;
+
+    private Deferred(CompletionStage<?> stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * @param stage The asynchronous result
+     * @param <R>   The result type
+     * @return the asynchronous result masked as a rule result
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R of(CompletionStage<? extends R> stage) {
+        return (R) new Deferred(stage);
+    }
+
+    /**
+     * @param result A rule result
+     * @return the result, waiting for its completion if it's computed asynchronously
+     */
+    static Object resolve(Object result) {
+        if (result instanceof Deferred) {
+            try {
+                return ((Deferred) result).stage.toCompletableFuture().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param result A rule result
+     * @param <R>    The result type
+     * @return the stage completed by the result
+     */
+    @SuppressWarnings("unchecked")
+    static <R> CompletionStage<R> stage(Object result) {
+        if (result instanceof Deferred) {
+            return (CompletionStage<R>) ((Deferred) result).stage;
+        }
+
+        return CompletableFuture.completedFuture((R) result);
+    }
+
+    /**
+     * @param result   A rule result
+     * @param function The function applied to the result
+     * @return the function result, composed when the rule result is computed asynchronously
+     */
+    @SuppressWarnings("unchecked")
+    static <R, S> S map(R result, Function<? super R, ? extends S> function) {
+        if (result instanceof Deferred) {
+            return of(((Deferred) result).stage.thenCompose(value -> stage(function.apply((R) value))));
+        }
+
+        return function.apply(result);
+    }
+
+    /**
+     * @param exception The failure
+     * @param <R>       The result type
+     * @return a stage completed exceptionally
+     */
+    static <R> CompletableFuture<R> failed(Throwable exception) {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        return future;
+    }
+
+    static Executor executor() {
+        return executor;
+    }
+
+    static void executor(Executor executor) {
+        Deferred.executor = executor == null ? virtualThreadExecutor() : executor;
+    }
+
+    /**
+     * @return an executor creating a virtual thread per task when the runtime provides
+     * them or the common fork join pool
+     */
+    private static Executor virtualThreadExecutor() {
+        try {
+            final MethodHandle factory = MethodHandles.publicLookup().findStatic(
+                    Executors.class,
+                    "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class)
+            );
+            return (ExecutorService) factory.invokeExact();
+        } catch (Throwable e) {
+            return ForkJoinPool.commonPool();
+        }
+    }
+}
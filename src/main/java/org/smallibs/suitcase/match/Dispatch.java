@@ -0,0 +1,308 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Dispatch defines the evaluation plan of a rule set. Rules are selected according
+ * to the runtime class of the matched object and runs of unconditional constant rules
+ * are evaluated with a single hash lookup. Rules shadowed by a previous one are never
+ * evaluated. Such plan is immutable.
+ * <p>
+ * When rule weights are given, consecutive steps which are pairwise disjoint are
+ * evaluated by decreasing weight. Since at most one of them can accept a given object
+ * the result remains the declaration order first match.
+ */
+
+final class Dispatch {
+
+    /**
+     * Minimal number of consecutive constant rules compiled into a hash table
+     */
+    private static final int MIN_TABLE_SIZE = 3;
+
+    /**
+     * Rule description required by the dispatch
+     */
+    interface Entry {
+        /**
+         * @param type The runtime class of a matched object
+         * @return false if the rule can never apply to an object of this runtime class
+         */
+        boolean accepts(Class<?> type);
+
+        /**
+         * @param type The runtime class of a matched object
+         * @return true if the rule has no type guard or if its type guard is this runtime class
+         */
+        boolean isExact(Class<?> type);
+
+        /**
+         * @return true if the rule matches by equality with its constant and has no condition
+         */
+        boolean isConstant();
+
+        /**
+         * @return the constant used by the rule when it's a constant rule
+         */
+        Object constant();
+
+        /**
+         * @param entry Another rule
+         * @return true if it is proven that no object can be accepted by both rules
+         */
+        boolean isDisjoint(Entry entry);
+    }
+
+    private final List<? extends Entry> entries;
+    private final int size;
+    private final int[] tableOf;
+    private final List<Map<Object, Integer>> tables;
+    private final List<int[]> tableRanges;
+    private final long[] weights;
+    private final boolean[] shadowed;
+    private final ClassValue<int[]> steps;
+
+    /**
+     * The constructor
+     *
+     * @param entries The rules, only the current ones are taken into account
+     */
+    Dispatch(List<? extends Entry> entries) {
+        this(entries, null, new boolean[entries.size()]);
+    }
+
+    /**
+     * The constructor
+     *
+     * @param entries  The rules, only the current ones are taken into account
+     * @param weights  The rule weights or null for the declaration order
+     * @param shadowed The rules which can never be applied
+     */
+    Dispatch(List<? extends Entry> entries, long[] weights, boolean[] shadowed) {
+        this.entries = entries;
+        this.size = entries.size();
+        this.tableOf = new int[size];
+        this.tables = new ArrayList<>();
+        this.tableRanges = new ArrayList<>();
+        this.weights = weights;
+        this.shadowed = shadowed;
+        this.steps = new ClassValue<int[]>() {
+            @Override
+            protected int[] computeValue(Class<?> type) {
+                return computeSteps(type);
+            }
+        };
+
+        compileConstants();
+    }
+
+    /**
+     * Provides the evaluation steps for a given runtime class. A positive step denotes a
+     * rule index and a negative one denotes a constant table which must be resolved using
+     * the lookup method.
+     *
+     * @param type The runtime class of the matched object
+     * @return the evaluation steps
+     */
+    int[] steps(Class<?> type) {
+        return steps.get(type);
+    }
+
+    /**
+     * Provides the evaluation steps regardless of the runtime class of the matched object.
+     *
+     * @return the evaluation steps in declaration order
+     */
+    int[] steps() {
+        return computeSteps(null);
+    }
+
+    /**
+     * Resolves a constant table step.
+     *
+     * @param step   The table step
+     * @param object The matched object
+     * @return the index of the first constant rule equals to the object or -1 if none
+     */
+    int lookup(int step, Object object) {
+        final Integer index = tables.get(-step - 1).get(object);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Provides the rule indexes in evaluation order for a given runtime class. The rules
+     * of a constant table are given in declaration order.
+     *
+     * @param type The runtime class of the matched object
+     * @return the rule indexes
+     */
+    List<Integer> order(Class<?> type) {
+        final List<Integer> order = new ArrayList<>();
+        for (int step : steps(type)) {
+            for (int index : rulesOf(step)) {
+                order.add(index);
+            }
+        }
+        return order;
+    }
+
+    // =================================================================================================================
+
+    private void compileConstants() {
+        int start = 0;
+        while (start < size) {
+            int end = start;
+            while (end < size && isHashable(entries.get(end))) {
+                end += 1;
+            }
+
+            if (end - start >= MIN_TABLE_SIZE) {
+                final Map<Object, Integer> table = new HashMap<>();
+                for (int index = start; index < end; index++) {
+                    table.putIfAbsent(entries.get(index).constant(), index);
+                    tableOf[index] = tables.size();
+                }
+                tables.add(table);
+                tableRanges.add(range(start, end));
+            } else {
+                for (int index = start; index < end; index++) {
+                    tableOf[index] = -1;
+                }
+            }
+
+            if (end < size) {
+                tableOf[end] = -1;
+            }
+
+            start = end + 1;
+        }
+    }
+
+    private int[] computeSteps(Class<?> type) {
+        final int[] steps = new int[size];
+        int length = 0;
+
+        for (int index = 0; index < size; index++) {
+            final int table = tableOf[index];
+            if (table >= 0) {
+                if (index == 0 || tableOf[index - 1] != table) {
+                    steps[length++] = -table - 1;
+                }
+            } else if (!shadowed[index] && (type == null || entries.get(index).accepts(type))) {
+                steps[length++] = index;
+            }
+        }
+
+        if (weights != null && type != null) {
+            reorder(steps, length, type);
+        }
+
+        return Arrays.copyOf(steps, length);
+    }
+
+    private void reorder(int[] steps, int length, Class<?> type) {
+        int start = 0;
+        while (start < length) {
+            int end = start + 1;
+            while (end < length && isExact(steps[start], type) && isExact(steps[end], type) && isDisjoint(steps, start, end)) {
+                end += 1;
+            }
+
+            if (end - start > 1) {
+                final Integer[] group = new Integer[end - start];
+                for (int index = start; index < end; index++) {
+                    group[index - start] = steps[index];
+                }
+
+                // Stable sort: rules with the same weight remain in declaration order
+                Arrays.sort(group, (s1, s2) -> Long.compare(weightOf(s2), weightOf(s1)));
+
+                for (int index = start; index < end; index++) {
+                    steps[index] = group[index - start];
+                }
+            }
+
+            start = end;
+        }
+    }
+
+    private boolean isDisjoint(int[] steps, int start, int end) {
+        for (int index = start; index < end; index++) {
+            if (!isDisjoint(steps[index], steps[end])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isDisjoint(int step1, int step2) {
+        if (step1 < 0 && step2 >= 0 && isHashable(entries.get(step2))) {
+            return !tables.get(-step1 - 1).containsKey(entries.get(step2).constant());
+        }
+
+        if (step2 < 0 && step1 >= 0 && isHashable(entries.get(step1))) {
+            return !tables.get(-step2 - 1).containsKey(entries.get(step1).constant());
+        }
+
+        for (int index1 : rulesOf(step1)) {
+            for (int index2 : rulesOf(step2)) {
+                if (!entries.get(index1).isDisjoint(entries.get(index2))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isExact(int step, Class<?> type) {
+        // A rule accepting a super class of its type guard is not compared using its shape
+        return step < 0 || entries.get(step).isExact(type);
+    }
+
+    private long weightOf(int step) {
+        long weight = 0;
+        for (int index : rulesOf(step)) {
+            weight += weights[index];
+        }
+        return weight;
+    }
+
+    private int[] rulesOf(int step) {
+        return step < 0 ? tableRanges.get(-step - 1) : new int[]{step};
+    }
+
+    private static int[] range(int start, int end) {
+        final int[] range = new int[end - start];
+        for (int index = start; index < end; index++) {
+            range[index - start] = index;
+        }
+        return range;
+    }
+
+    private static boolean isHashable(Entry entry) {
+        // Arrays are compared by content and null is never reached by a class based dispatch
+        return entry.isConstant() && entry.constant() != null && !entry.constant().getClass().isArray();
+    }
+}
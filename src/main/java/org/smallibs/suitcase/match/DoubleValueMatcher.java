@@ -0,0 +1,177 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.lang.DoubleCase;
+
+import java.util.Optional;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.LongFunction;
+
+/**
+ * The DoubleValueMatcher defines a pattern matching rule set dedicated to double values.
+ * Patterns, conditions and callbacks use primitive functional interfaces so the
+ * matched value is never boxed. Consecutive constant rules are evaluated with a table
+ * lookup. Values are keyed by their bits so constants follow Double.equals and NaN
+ * values are seen in their canonical form.
+ *
+ * @param <R> The matching result type
+ */
+
+public class DoubleValueMatcher<R> {
+
+    /**
+     * The rule set
+     */
+    private final ValueRules<R> rules;
+
+    /**
+     * The constructor
+     */
+    protected DoubleValueMatcher() {
+        this.rules = new ValueRules<>();
+    }
+
+    /**
+     * Factory
+     *
+     * @param <R> The matching result type
+     * @return a fresh pattern matching rule set
+     */
+    public static <R> DoubleValueMatcher<R> create() {
+        return new DoubleValueMatcher<>();
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param value The constant pattern
+     * @return a
+     */
+    public WhenRule caseOf(double value) {
+        return new WhenRule(DoubleCase.Constant(value));
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param pattern The pattern
+     * @return a
+     */
+    public WhenRule caseOf(DoublePredicate pattern) {
+        return new WhenRule(pattern);
+    }
+
+    /**
+     * Main method performing the pattern matching.
+     *
+     * @param value The value to be matched
+     * @return a computation result done by an accepted rule during pattern matching process
+     * @throws MatchingException when no pattern matching rule can be applied
+     */
+    public R match(double value) throws MatchingException {
+        return rules.match(key(value));
+    }
+
+    /**
+     * Pattern matching returning a default value when no rule can be applied.
+     *
+     * @param value     The value to be matched
+     * @param otherwise The value returned when no rule can be applied
+     * @return a computation result done by an accepted rule or the default value
+     */
+    public R matchOrElse(double value, R otherwise) {
+        return rules.matchOrElse(key(value), otherwise);
+    }
+
+    /**
+     * Pattern matching denoting a failure with an empty result.
+     *
+     * @param value The value to be matched
+     * @return a computation result done by an accepted rule or nothing if no rule can be applied
+     */
+    public Optional<R> matchOptional(double value) {
+        return rules.matchOptional(key(value));
+    }
+
+    /**
+     * @param otherwise The value returned when no rule can be applied
+     * @return a function performing the pattern matching with the current rule set
+     */
+    public DoubleFunction<R> mapping(R otherwise) {
+        final LongFunction<R> mapping = rules.mapping(otherwise);
+        return value -> mapping.apply(key(value));
+    }
+
+    // =================================================================================================================
+
+    private DoubleValueMatcher<R> addRule(DoublePredicate pattern, DoublePredicate when, DoubleFunction<R> then) {
+        final LongFunction<R> callBack = key -> then.apply(value(key));
+        if (when == null && pattern instanceof DoubleCase.Constant) {
+            rules.addConstant(key(((DoubleCase.Constant) pattern).value()), callBack);
+        } else {
+            rules.add(key -> pattern.test(value(key)), when == null ? null : key -> when.test(value(key)), callBack);
+        }
+
+        return this;
+    }
+
+    private static long key(double value) {
+        return Double.doubleToLongBits(value);
+    }
+
+    private static double value(long key) {
+        return Double.longBitsToDouble(key);
+    }
+
+    // =================================================================================================================
+    // Rules definition
+    // =================================================================================================================
+
+    public class ThenRule {
+        protected final DoublePredicate pattern;
+        protected final DoublePredicate when;
+
+        public ThenRule(DoublePredicate pattern, DoublePredicate when) {
+            this.pattern = pattern;
+            this.when = when;
+        }
+
+        public DoubleValueMatcher<R> then(R c) {
+            return then(value -> c);
+        }
+
+        public DoubleValueMatcher<R> then(DoubleFunction<R> callBack) {
+            return addRule(pattern, when, callBack);
+        }
+    }
+
+    public class WhenRule extends ThenRule {
+        public WhenRule(DoublePredicate pattern) {
+            super(pattern, null);
+        }
+
+        public ThenRule when(DoublePredicate callBack) {
+            return new ThenRule(pattern, callBack);
+        }
+    }
+}
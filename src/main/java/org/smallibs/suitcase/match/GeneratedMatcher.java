@@ -0,0 +1,302 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.Captures;
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Result;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Optional;
+
+/**
+ * The GeneratedMatcher defines an immutable pattern matching rule set compiled into a
+ * method handle tree: type guarded rules become guarded branches, runs of constant rules
+ * become hash lookups and rules are directly bound to their branch. When such handle is
+ * stored in a constant, e.g. a static final field, the JIT can inline the whole decision
+ * procedure.
+ * <p>
+ * When the matcher is dedicated to a sealed hierarchy, each concrete class of the hierarchy
+ * has its own branch without type guards and the branch is selected by a table switch on
+ * the class identifier.
+ *
+ * @param <T> The matched object type
+ * @param <R> The matching result type
+ */
+
+public final class GeneratedMatcher<T, R> implements Case.WithoutCapture<T, R> {
+
+    private static final MethodHandle RULE;
+    private static final MethodHandle TABLE;
+    private static final MethodHandle ACCEPTS;
+    private static final MethodHandle IS_NO_MATCH;
+    private static final MethodHandle CHECK;
+    private static final MethodHandle ID;
+    private static final MethodHandle RESOLVE;
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            RULE = lookup.findVirtual(Matcher.Rule.class, "match", MethodType.methodType(Object.class, Object.class));
+            TABLE = lookup.findStatic(GeneratedMatcher.class, "table", MethodType.methodType(Object.class, Dispatch.class, int.class, Matcher.Rule[].class, Object.class));
+            ACCEPTS = lookup.findStatic(GeneratedMatcher.class, "accepts", MethodType.methodType(boolean.class, Class.class, Object.class));
+            IS_NO_MATCH = lookup.findStatic(GeneratedMatcher.class, "isNoMatch", MethodType.methodType(boolean.class, Object.class));
+            CHECK = lookup.findStatic(GeneratedMatcher.class, "check", MethodType.methodType(Object.class, Object.class));
+            RESOLVE = lookup.findStatic(Deferred.class, "resolve", MethodType.methodType(Object.class, Object.class));
+            ID = lookup.findStatic(GeneratedMatcher.class, "id", MethodType.methodType(int.class, ClassValue.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The decision procedure returning NO_MATCH when no rule can be applied
+     */
+    private final MethodHandle evaluate;
+
+    /**
+     * The decision procedure throwing a MatchingException when no rule can be applied
+     */
+    private final MethodHandle handle;
+
+    /**
+     * The constructor
+     *
+     * @param rules    The compiled rules
+     * @param dispatch The rules evaluation plan
+     * @param leaves   The concrete classes of the sealed hierarchy of the matched objects, if any
+     */
+    GeneratedMatcher(Matcher.Rule<T, R>[] rules, Dispatch dispatch, Class<?>[] leaves) {
+        final MethodHandle evaluate = branch(rules, dispatch, dispatch.steps(), true);
+
+        if (leaves.length == 0) {
+            this.evaluate = evaluate;
+        } else {
+            final MethodHandle[] branches = new MethodHandle[leaves.length];
+            for (int id = 0; id < leaves.length; id++) {
+                branches[id] = MethodHandles.dropArguments(branch(rules, dispatch, dispatch.steps(leaves[id]), false), 0, int.class);
+            }
+
+            final MethodHandle select = tableSwitch(MethodHandles.dropArguments(evaluate, 0, int.class), branches);
+            this.evaluate = MethodHandles.foldArguments(select, ID.bindTo(identifiers(leaves)));
+        }
+
+        this.handle = MethodHandles.filterReturnValue(MethodHandles.filterReturnValue(this.evaluate, RESOLVE), CHECK);
+    }
+
+    /**
+     * Provides the decision procedure. Its type is (Object)Object and it throws a
+     * MatchingException when no rule can be applied.
+     *
+     * @return the method handle performing the pattern matching
+     */
+    public MethodHandle handle() {
+        return handle;
+    }
+
+    /**
+     * Main method performing the pattern matching.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by an accepted rule during pattern matching process
+     * @throws MatchingException when no pattern matching rule can be applied
+     */
+    @SuppressWarnings("unchecked")
+    public R match(T object) throws MatchingException {
+        final Object result = evaluate(object);
+        if (result != Matcher.Rule.NO_MATCH) {
+            return (R) result;
+        }
+
+        throw new MatchingException();
+    }
+
+    /**
+     * Pattern matching returning a default value when no rule can be applied.
+     *
+     * @param object    The object to be matched
+     * @param otherwise The value returned when no rule can be applied
+     * @return a computation result done by an accepted rule or the default value
+     */
+    @SuppressWarnings("unchecked")
+    public R matchOrElse(T object, R otherwise) {
+        final Object result = evaluate(object);
+        return result != Matcher.Rule.NO_MATCH ? (R) result : otherwise;
+    }
+
+    /**
+     * Pattern matching denoting a failure with an empty result.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by an accepted rule or nothing if no rule can be applied
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<R> matchOptional(T object) {
+        final Object result = evaluate(object);
+        return result != Matcher.Rule.NO_MATCH ? Optional.ofNullable((R) result) : Optional.empty();
+    }
+
+    // =================================================================================================================
+    // Case<_,_> implementation
+    // =================================================================================================================
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Result.WithoutCapture<R>> unapply(T t) {
+        final Object result = evaluate(t);
+        return result != Matcher.Rule.NO_MATCH ? Optional.of(Result.success((R) result)) : Optional.empty();
+    }
+
+    @Override
+    public boolean unapply(T t, Captures captures) {
+        final Object result = evaluate(t);
+        if (result != Matcher.Rule.NO_MATCH) {
+            captures.push(result);
+            return true;
+        }
+
+        return false;
+    }
+
+    // =================================================================================================================
+
+    private Object evaluate(T object) {
+        try {
+            return Deferred.resolve((Object) evaluate.invokeExact((Object) object));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * @param rules    The compiled rules
+     * @param dispatch The rules evaluation plan
+     * @param steps    The evaluation steps
+     * @param guarded  True if the rule type guards must be checked
+     * @return the handle evaluating the steps in order
+     */
+    private static MethodHandle branch(Matcher.Rule<?, ?>[] rules, Dispatch dispatch, int[] steps, boolean guarded) {
+        MethodHandle next = MethodHandles.dropArguments(MethodHandles.constant(Object.class, Matcher.Rule.NO_MATCH), 0, Object.class);
+
+        for (int step = steps.length - 1; step >= 0; step--) {
+            if (steps[step] < 0) {
+                next = orElse(MethodHandles.insertArguments(TABLE, 0, dispatch, steps[step], rules), next);
+            } else {
+                final Matcher.Rule<?, ?> rule = rules[steps[step]];
+                final MethodHandle branch = orElse(RULE.bindTo(rule), next);
+
+                if (!guarded || rule.typeGuard() == null) {
+                    next = branch;
+                } else {
+                    next = MethodHandles.guardWithTest(ACCEPTS.bindTo(rule.typeGuard()), branch, next);
+                }
+            }
+        }
+
+        return next;
+    }
+
+    /**
+     * @param leaves The concrete classes of a sealed hierarchy
+     * @return the dense identifier of each class, i.e. its position, or -1 for other classes
+     */
+    private static ClassValue<Integer> identifiers(Class<?>[] leaves) {
+        return new ClassValue<Integer>() {
+            @Override
+            protected Integer computeValue(Class<?> type) {
+                for (int id = 0; id < leaves.length; id++) {
+                    if (leaves[id] == type) {
+                        return id;
+                    }
+                }
+
+                return -1;
+            }
+        };
+    }
+
+    /**
+     * Table switches are only available since Java 17 like sealed hierarchies so the
+     * method is retrieved reflectively.
+     *
+     * @param fallback The handle used when the selector is out of range
+     * @param branches The handles selected by the selector
+     * @return the table switch handle
+     */
+    private static MethodHandle tableSwitch(MethodHandle fallback, MethodHandle[] branches) {
+        try {
+            final Method tableSwitch = MethodHandles.class.getMethod("tableSwitch", MethodHandle.class, MethodHandle[].class);
+            return (MethodHandle) tableSwitch.invoke(null, fallback, branches);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param attempt The handle to be tried first
+     * @param next    The handle used when the first one returns NO_MATCH
+     * @return a handle trying the first one and then the next one
+     */
+    private static MethodHandle orElse(MethodHandle attempt, MethodHandle next) {
+        final MethodHandle select = MethodHandles.guardWithTest(
+                IS_NO_MATCH,
+                MethodHandles.dropArguments(next, 0, Object.class),
+                MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, Object.class)
+        );
+
+        return MethodHandles.foldArguments(select, attempt);
+    }
+
+    // =================================================================================================================
+    // Method handle targets
+    // =================================================================================================================
+
+    @SuppressWarnings("unchecked")
+    private static Object table(Dispatch dispatch, int step, Matcher.Rule[] rules, Object object) {
+        final int index = dispatch.lookup(step, object);
+        return index < 0 ? Matcher.Rule.NO_MATCH : rules[index].match(object);
+    }
+
+    private static boolean accepts(Class<?> type, Object object) {
+        return object == null || object.getClass().isAssignableFrom(type);
+    }
+
+    private static int id(ClassValue<Integer> identifiers, Object object) {
+        return object == null ? -1 : identifiers.get(object.getClass());
+    }
+
+    private static boolean isNoMatch(Object result) {
+        return result == Matcher.Rule.NO_MATCH;
+    }
+
+    private static Object check(Object result) {
+        if (result == Matcher.Rule.NO_MATCH) {
+            throw new MatchingException();
+        }
+
+        return result;
+    }
+}
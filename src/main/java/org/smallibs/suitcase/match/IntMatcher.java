@@ -0,0 +1,361 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.Captures;
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import static org.smallibs.suitcase.cases.core.Cases.Constant;
+import static org.smallibs.suitcase.cases.core.Cases.typeOf;
+
+/**
+ * The IntMatcher defines a pattern matching rule set computing int values. Conditions
+ * and callbacks use primitive functional interfaces so no value is boxed during the
+ * pattern matching.
+ *
+ * @param <T> The matched object type
+ */
+
+public class IntMatcher<T> {
+
+    /**
+     * The rule set
+     */
+    private final List<IntRule<T>> rules;
+
+    /**
+     * The evaluation plan, built on demand and dropped each time a rule is added
+     */
+    private Plan<T> plan;
+
+    /**
+     * The constructor
+     */
+    protected IntMatcher() {
+        this.rules = new ArrayList<>();
+        this.plan = null;
+    }
+
+    /**
+     * Factory
+     *
+     * @param <T> The matched object type
+     * @return a fresh pattern matching rule set
+     */
+    public static <T> IntMatcher<T> create() {
+        return new IntMatcher<>();
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param <C>    The type of the capture
+     * @param object The pattern
+     * @return a
+     */
+    public <C> WhenRuleWithoutCapture<C> caseOf(Case.WithoutCapture<? extends T, C> object) {
+        return new WhenRuleWithoutCapture<>(object);
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param <C>    The type of the capture
+     * @param object The pattern
+     * @return a
+     */
+    public <C> WhenRuleWithCapture<C> caseOf(Case.WithCapture<? extends T, C> object) {
+        return new WhenRuleWithCapture<>(object);
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param <E>    The class type to be matched
+     * @param object The pattern
+     * @return a
+     */
+    public <E extends T> WhenRuleWithoutCapture<E> caseOf(Class<E> object) {
+        return new WhenRuleWithoutCapture<>(typeOf(object));
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param object The pattern
+     * @return a
+     */
+    public WhenRuleWithoutCapture<T> caseOf(T object) {
+        return new WhenRuleWithoutCapture<>(Constant(object));
+    }
+
+    /**
+     * Main method performing the pattern matching.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by an accepted rule during pattern matching process
+     * @throws MatchingException when no pattern matching rule can be applied
+     */
+    public int matchInt(T object) throws MatchingException {
+        final long result = plan().evaluate(object);
+        if (result != IntRule.NO_MATCH) {
+            return (int) result;
+        }
+
+        throw new MatchingException();
+    }
+
+    /**
+     * Pattern matching returning a default value when no rule can be applied.
+     *
+     * @param object    The object to be matched
+     * @param otherwise The value returned when no rule can be applied
+     * @return a computation result done by an accepted rule or the default value
+     */
+    public int matchIntOrElse(T object, int otherwise) {
+        final long result = plan().evaluate(object);
+        return result != IntRule.NO_MATCH ? (int) result : otherwise;
+    }
+
+    /**
+     * @param otherwise The value returned when no rule can be applied
+     * @return a function performing the pattern matching with the current rule set
+     */
+    public ToIntFunction<T> mapping(int otherwise) {
+        final Plan<T> plan = plan();
+        return object -> {
+            final long result = plan.evaluate(object);
+            return result != IntRule.NO_MATCH ? (int) result : otherwise;
+        };
+    }
+
+    // =================================================================================================================
+
+    private IntMatcher<T> addRule(IntRule<T> rule) {
+        this.rules.add(rule);
+        this.plan = null;
+        return this;
+    }
+
+    private Plan<T> plan() {
+        if (this.plan == null) {
+            this.plan = new Plan<>(this.rules);
+        }
+
+        return this.plan;
+    }
+
+    /**
+     * Immutable evaluation plan of a rule set
+     */
+    private static final class Plan<T> {
+        private final IntRule<T>[] rules;
+        private final Dispatch dispatch;
+
+        @SuppressWarnings("unchecked")
+        private Plan(List<IntRule<T>> rules) {
+            this.rules = rules.toArray(new IntRule[rules.size()]);
+            this.dispatch = new Dispatch(Arrays.asList(this.rules), null, Analysis.shadowed(this.rules));
+        }
+
+        private long evaluate(T object) {
+            if (object == null) {
+                for (int index = 0; index < rules.length; index++) {
+                    final long result = rules[index].match(null);
+                    if (result != IntRule.NO_MATCH) {
+                        return result;
+                    }
+                }
+            } else {
+                final int[] steps = dispatch.steps(object.getClass());
+                for (int step = 0; step < steps.length; step++) {
+                    final int index = steps[step] < 0 ? dispatch.lookup(steps[step], object) : steps[step];
+                    if (index >= 0) {
+                        final long result = rules[index].match(object);
+                        if (result != IntRule.NO_MATCH) {
+                            return result;
+                        }
+                    }
+                }
+            }
+
+            return IntRule.NO_MATCH;
+        }
+    }
+
+    static abstract class IntRule<T> extends AbstractRule {
+        /**
+         * Result denoting a rule which cannot be applied. It's out of the int range.
+         */
+        static final long NO_MATCH = Long.MIN_VALUE;
+
+        IntRule(Case<?, ?> aCase, Object when) {
+            super(aCase, when);
+        }
+
+        /**
+         * @param object The object to be matched
+         * @return the rule result or NO_MATCH if the rule cannot be applied
+         */
+        abstract long match(T object);
+    }
+
+    // =================================================================================================================
+    // Behaviors for Rule Without Capture
+    // =================================================================================================================
+
+    private static class RuleWithoutCapture<T, C> extends IntRule<T> {
+        private final Case<T, Result.WithoutCapture<C>> aCase;
+        private final BooleanSupplier when;
+        private final IntSupplier then;
+
+        @SuppressWarnings("unchecked")
+        private RuleWithoutCapture(Case<? extends T, Result.WithoutCapture<C>> aCase, BooleanSupplier when, IntSupplier then) {
+            super(aCase, when);
+            this.aCase = (Case<T, Result.WithoutCapture<C>>) aCase;
+            this.when = when;
+            this.then = then;
+        }
+
+        @Override
+        long match(T object) {
+            if (aCase.unapply(object, Captures.ignore()) && (when == null || when.getAsBoolean())) {
+                return then.getAsInt();
+            }
+
+            return NO_MATCH;
+        }
+    }
+
+    public class ThenRuleWithoutCapture<C> {
+        protected final BooleanSupplier when;
+        protected final Case<? extends T, Result.WithoutCapture<C>> aCase;
+
+        public ThenRuleWithoutCapture(Case<? extends T, Result.WithoutCapture<C>> aCase) {
+            this.when = null;
+            this.aCase = aCase;
+        }
+
+        public ThenRuleWithoutCapture(BooleanSupplier when, Case<? extends T, Result.WithoutCapture<C>> aCase) {
+            this.when = when;
+            this.aCase = aCase;
+        }
+
+        public IntMatcher<T> then(int c) {
+            return then(() -> c);
+        }
+
+        public IntMatcher<T> then(IntSupplier callBack) {
+            return addRule(new RuleWithoutCapture<>(aCase, when, callBack));
+        }
+    }
+
+    public class WhenRuleWithoutCapture<C> extends ThenRuleWithoutCapture<C> {
+        public WhenRuleWithoutCapture(Case<? extends T, Result.WithoutCapture<C>> aCase) {
+            super(aCase);
+        }
+
+        public ThenRuleWithoutCapture<C> when(BooleanSupplier callBack) {
+            return new ThenRuleWithoutCapture<>(callBack, this.aCase);
+        }
+    }
+
+    // =================================================================================================================
+    // Behaviors for Rule With Capture
+    // =================================================================================================================
+
+    private static class RuleWithCapture<T, C> extends IntRule<T> {
+        private final Case<T, Result.WithCapture<C>> aCase;
+        private final Predicate<C> when;
+        private final ToIntFunction<C> then;
+
+        @SuppressWarnings("unchecked")
+        private RuleWithCapture(Case<? extends T, Result.WithCapture<C>> aCase, Predicate<C> when, ToIntFunction<C> then) {
+            super(aCase, when);
+            this.aCase = (Case<T, Result.WithCapture<C>>) aCase;
+            this.when = when;
+            this.then = then;
+        }
+
+        @Override
+        long match(T object) {
+            final Captures captures = Captures.local();
+            final int size = captures.size();
+
+            try {
+                if (aCase.unapply(object, captures)) {
+                    final C capture = captures.pop();
+                    if (when == null || when.test(capture)) {
+                        return then.applyAsInt(capture);
+                    }
+                }
+
+                return NO_MATCH;
+            } finally {
+                captures.reset(size);
+            }
+        }
+    }
+
+    public class ThenRuleWithCapture<C> {
+        protected final Case<? extends T, Result.WithCapture<C>> aCase;
+        protected final Predicate<C> when;
+
+        public ThenRuleWithCapture(Case<? extends T, Result.WithCapture<C>> aCase) {
+            this.when = null;
+            this.aCase = aCase;
+        }
+
+        public ThenRuleWithCapture(Predicate<C> when, Case<? extends T, Result.WithCapture<C>> aCase) {
+            this.when = when;
+            this.aCase = aCase;
+        }
+
+        public IntMatcher<T> then(ToIntFunction<C> callBack) {
+            return addRule(new RuleWithCapture<>(aCase, when, callBack));
+        }
+
+        public IntMatcher<T> then(int c) {
+            return addRule(new RuleWithCapture<>(aCase, when, (capture -> c)));
+        }
+    }
+
+    public class WhenRuleWithCapture<C> extends ThenRuleWithCapture<C> {
+        public WhenRuleWithCapture(Case<? extends T, Result.WithCapture<C>> aCase) {
+            super(aCase);
+        }
+
+        public ThenRuleWithCapture<C> when(Predicate<C> callBack) {
+            return new ThenRuleWithCapture<>(callBack, this.aCase);
+        }
+    }
+}
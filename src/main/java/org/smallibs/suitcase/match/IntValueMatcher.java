@@ -0,0 +1,168 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.lang.IntCase;
+
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.LongFunction;
+
+/**
+ * The IntValueMatcher defines a pattern matching rule set dedicated to int values.
+ * Patterns, conditions and callbacks use primitive functional interfaces so the
+ * matched value is never boxed. Consecutive constant rules are evaluated with a table
+ * lookup.
+ *
+ * @param <R> The matching result type
+ */
+
+public class IntValueMatcher<R> {
+
+    /**
+     * The rule set
+     */
+    private final ValueRules<R> rules;
+
+    /**
+     * The constructor
+     */
+    protected IntValueMatcher() {
+        this.rules = new ValueRules<>();
+    }
+
+    /**
+     * Factory
+     *
+     * @param <R> The matching result type
+     * @return a fresh pattern matching rule set
+     */
+    public static <R> IntValueMatcher<R> create() {
+        return new IntValueMatcher<>();
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param value The constant pattern
+     * @return a
+     */
+    public WhenRule caseOf(int value) {
+        return new WhenRule(IntCase.Constant(value));
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param pattern The pattern
+     * @return a
+     */
+    public WhenRule caseOf(IntPredicate pattern) {
+        return new WhenRule(pattern);
+    }
+
+    /**
+     * Main method performing the pattern matching.
+     *
+     * @param value The value to be matched
+     * @return a computation result done by an accepted rule during pattern matching process
+     * @throws MatchingException when no pattern matching rule can be applied
+     */
+    public R match(int value) throws MatchingException {
+        return rules.match(value);
+    }
+
+    /**
+     * Pattern matching returning a default value when no rule can be applied.
+     *
+     * @param value     The value to be matched
+     * @param otherwise The value returned when no rule can be applied
+     * @return a computation result done by an accepted rule or the default value
+     */
+    public R matchOrElse(int value, R otherwise) {
+        return rules.matchOrElse(value, otherwise);
+    }
+
+    /**
+     * Pattern matching denoting a failure with an empty result.
+     *
+     * @param value The value to be matched
+     * @return a computation result done by an accepted rule or nothing if no rule can be applied
+     */
+    public Optional<R> matchOptional(int value) {
+        return rules.matchOptional(value);
+    }
+
+    /**
+     * @param otherwise The value returned when no rule can be applied
+     * @return a function performing the pattern matching with the current rule set
+     */
+    public IntFunction<R> mapping(R otherwise) {
+        final LongFunction<R> mapping = rules.mapping(otherwise);
+        return mapping::apply;
+    }
+
+    // =================================================================================================================
+
+    private IntValueMatcher<R> addRule(IntPredicate pattern, IntPredicate when, IntFunction<R> then) {
+        final LongFunction<R> callBack = key -> then.apply((int) key);
+        if (when == null && pattern instanceof IntCase.Constant) {
+            rules.addConstant(((IntCase.Constant) pattern).value(), callBack);
+        } else {
+            rules.add(key -> pattern.test((int) key), when == null ? null : key -> when.test((int) key), callBack);
+        }
+
+        return this;
+    }
+
+    // =================================================================================================================
+    // Rules definition
+    // =================================================================================================================
+
+    public class ThenRule {
+        protected final IntPredicate pattern;
+        protected final IntPredicate when;
+
+        public ThenRule(IntPredicate pattern, IntPredicate when) {
+            this.pattern = pattern;
+            this.when = when;
+        }
+
+        public IntValueMatcher<R> then(R c) {
+            return then(value -> c);
+        }
+
+        public IntValueMatcher<R> then(IntFunction<R> callBack) {
+            return addRule(pattern, when, callBack);
+        }
+    }
+
+    public class WhenRule extends ThenRule {
+        public WhenRule(IntPredicate pattern) {
+            super(pattern, null);
+        }
+
+        public ThenRule when(IntPredicate callBack) {
+            return new ThenRule(pattern, callBack);
+        }
+    }
+}
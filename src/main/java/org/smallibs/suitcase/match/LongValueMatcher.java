@@ -0,0 +1,165 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.lang.LongCase;
+
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+
+/**
+ * The LongValueMatcher defines a pattern matching rule set dedicated to long values.
+ * Patterns, conditions and callbacks use primitive functional interfaces so the
+ * matched value is never boxed. Consecutive constant rules are evaluated with a table
+ * lookup.
+ *
+ * @param <R> The matching result type
+ */
+
+public class LongValueMatcher<R> {
+
+    /**
+     * The rule set
+     */
+    private final ValueRules<R> rules;
+
+    /**
+     * The constructor
+     */
+    protected LongValueMatcher() {
+        this.rules = new ValueRules<>();
+    }
+
+    /**
+     * Factory
+     *
+     * @param <R> The matching result type
+     * @return a fresh pattern matching rule set
+     */
+    public static <R> LongValueMatcher<R> create() {
+        return new LongValueMatcher<>();
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param value The constant pattern
+     * @return a
+     */
+    public WhenRule caseOf(long value) {
+        return new WhenRule(LongCase.Constant(value));
+    }
+
+    /**
+     * Method called in order to create a new rule. The returns a When
+     * object able to capture a conditional or a termination.
+     *
+     * @param pattern The pattern
+     * @return a
+     */
+    public WhenRule caseOf(LongPredicate pattern) {
+        return new WhenRule(pattern);
+    }
+
+    /**
+     * Main method performing the pattern matching.
+     *
+     * @param value The value to be matched
+     * @return a computation result done by an accepted rule during pattern matching process
+     * @throws MatchingException when no pattern matching rule can be applied
+     */
+    public R match(long value) throws MatchingException {
+        return rules.match(value);
+    }
+
+    /**
+     * Pattern matching returning a default value when no rule can be applied.
+     *
+     * @param value     The value to be matched
+     * @param otherwise The value returned when no rule can be applied
+     * @return a computation result done by an accepted rule or the default value
+     */
+    public R matchOrElse(long value, R otherwise) {
+        return rules.matchOrElse(value, otherwise);
+    }
+
+    /**
+     * Pattern matching denoting a failure with an empty result.
+     *
+     * @param value The value to be matched
+     * @return a computation result done by an accepted rule or nothing if no rule can be applied
+     */
+    public Optional<R> matchOptional(long value) {
+        return rules.matchOptional(value);
+    }
+
+    /**
+     * @param otherwise The value returned when no rule can be applied
+     * @return a function performing the pattern matching with the current rule set
+     */
+    public LongFunction<R> mapping(R otherwise) {
+        return rules.mapping(otherwise);
+    }
+
+    // =================================================================================================================
+
+    private LongValueMatcher<R> addRule(LongPredicate pattern, LongPredicate when, LongFunction<R> then) {
+        if (when == null && pattern instanceof LongCase.Constant) {
+            rules.addConstant(((LongCase.Constant) pattern).value(), then);
+        } else {
+            rules.add(pattern, when, then);
+        }
+
+        return this;
+    }
+
+    // =================================================================================================================
+    // Rules definition
+    // =================================================================================================================
+
+    public class ThenRule {
+        protected final LongPredicate pattern;
+        protected final LongPredicate when;
+
+        public ThenRule(LongPredicate pattern, LongPredicate when) {
+            this.pattern = pattern;
+            this.when = when;
+        }
+
+        public LongValueMatcher<R> then(R c) {
+            return then(value -> c);
+        }
+
+        public LongValueMatcher<R> then(LongFunction<R> callBack) {
+            return addRule(pattern, when, callBack);
+        }
+    }
+
+    public class WhenRule extends ThenRule {
+        public WhenRule(LongPredicate pattern) {
+            super(pattern, null);
+        }
+
+        public ThenRule when(LongPredicate callBack) {
+            return new ThenRule(pattern, callBack);
+        }
+    }
+}
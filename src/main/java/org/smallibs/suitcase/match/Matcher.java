@@ -18,14 +18,31 @@
 
 package org.smallibs.suitcase.match;
 
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.Case;
 import org.smallibs.suitcase.cases.Result;
+import org.smallibs.suitcase.cases.core.Var;
 import org.smallibs.suitcase.utils.Functions;
-
-import java.util.LinkedList;
+import org.smallibs.suitcase.utils.Functions.Condition;
+import org.smallibs.suitcase.utils.Functions.Function3;
+import org.smallibs.suitcase.utils.Functions.Function4;
+import org.smallibs.suitcase.utils.Functions.Function5;
+import org.smallibs.suitcase.utils.Functions.Function6;
+import org.smallibs.suitcase.utils.Tuple3;
+import org.smallibs.suitcase.utils.Tuple4;
+import org.smallibs.suitcase.utils.Tuple5;
+import org.smallibs.suitcase.utils.Tuple6;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import static org.smallibs.suitcase.cases.core.Cases.Constant;
@@ -43,13 +60,19 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
     /**
      * The rule set
      */
-    private final List<Rule<?>> rules;
+    private final List<Rule<T, R>> rules;
+
+    /**
+     * The compiled rule set, built on demand and dropped each time a rule is added
+     */
+    private CompiledMatcher<T, R> compiled;
 
     /**
      * The constructor
      */
     protected Matcher() {
-        this.rules = new LinkedList<>();
+        this.rules = new ArrayList<>();
+        this.compiled = null;
     }
 
     /**
@@ -63,6 +86,38 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
         return new Matcher<>();
     }
 
+    /**
+     * Factory for a recursive matcher. See RecursiveMatcher.
+     *
+     * @param definition The function defining the rules
+     * @param <T>        The matched object type
+     * @param <R>        The matching result type
+     * @return a fresh recursive matcher
+     */
+    public static <T, R> RecursiveMatcher<T, R> recursive(Consumer<RecursiveMatcher.Rules<T, R>> definition) {
+        final RecursiveMatcher.Rules<T, R> rules = new RecursiveMatcher.Rules<>();
+        definition.accept(rules);
+        return new RecursiveMatcher<>(rules);
+    }
+
+    /**
+     * @return the executor used by default for asynchronous pattern matching
+     */
+    public static Executor defaultExecutor() {
+        return Deferred.executor();
+    }
+
+    /**
+     * Defines the executor used by default for asynchronous pattern matching. When
+     * null is given the initial one is restored i.e. an executor creating a virtual
+     * thread per task when the runtime provides them or the common fork join pool.
+     *
+     * @param executor The executor
+     */
+    public static void defaultExecutor(Executor executor) {
+        Deferred.executor(executor);
+    }
+
     /**
      * Method called in order to create a new rule. The returns a When
      * object able to capture a conditional or a termination.
@@ -87,6 +142,51 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
         return new WhenRuleWithCapture<>(object);
     }
 
+
+    /**
+     * Method called in order to create a new rule capturing 3 values. The returns a When
+     * object able to capture a conditional or a termination taking the captured values.
+     *
+     * @param object The pattern
+     * @return a
+     */
+    public <C1, C2, C3> WhenRuleWithCapture3<C1, C2, C3> caseOf(Case.WithCapture3<? extends T, C1, C2, C3> object) {
+        return new WhenRuleWithCapture3<>(object);
+    }
+
+    /**
+     * Method called in order to create a new rule capturing 4 values. The returns a When
+     * object able to capture a conditional or a termination taking the captured values.
+     *
+     * @param object The pattern
+     * @return a
+     */
+    public <C1, C2, C3, C4> WhenRuleWithCapture4<C1, C2, C3, C4> caseOf(Case.WithCapture4<? extends T, C1, C2, C3, C4> object) {
+        return new WhenRuleWithCapture4<>(object);
+    }
+
+    /**
+     * Method called in order to create a new rule capturing 5 values. The returns a When
+     * object able to capture a conditional or a termination taking the captured values.
+     *
+     * @param object The pattern
+     * @return a
+     */
+    public <C1, C2, C3, C4, C5> WhenRuleWithCapture5<C1, C2, C3, C4, C5> caseOf(Case.WithCapture5<? extends T, C1, C2, C3, C4, C5> object) {
+        return new WhenRuleWithCapture5<>(object);
+    }
+
+    /**
+     * Method called in order to create a new rule capturing 6 values. The returns a When
+     * object able to capture a conditional or a termination taking the captured values.
+     *
+     * @param object The pattern
+     * @return a
+     */
+    public <C1, C2, C3, C4, C5, C6> WhenRuleWithCapture6<C1, C2, C3, C4, C5, C6> caseOf(Case.WithCapture6<? extends T, C1, C2, C3, C4, C5, C6> object) {
+        return new WhenRuleWithCapture6<>(object);
+    }
+
     /**
      * Method called in order to create a new rule. The returns a When
      * object able to capture a conditional or a termination.
@@ -110,6 +210,24 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
         return new WhenRuleWithoutCapture<>(Constant(object));
     }
 
+    /**
+     * Provides a matcher applying the rules of this matcher and then the rules of another
+     * one. Both rule sets are merged in a single one, so the composition does not add any
+     * indirection during the pattern matching.
+     *
+     * @param other The matcher used when no rule of this matcher can be applied
+     * @return a fresh matcher
+     */
+    @SuppressWarnings("unchecked")
+    public Matcher<T, R> orElse(Matcher<? super T, ? extends R> other) {
+        final Matcher<T, R> matcher = new Matcher<>();
+        matcher.rules.addAll(this.rules);
+        for (Rule<?, ?> rule : other.rules) {
+            matcher.rules.add((Rule<T, R>) rule);
+        }
+        return matcher;
+    }
+
     /**
      * Main method performing the pattern matching.
      *
@@ -118,14 +236,165 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
      * @throws MatchingException when no pattern matching rule can be applied
      */
     public R match(T object) throws MatchingException {
-        for (Rule rule : rules) {
-            final Optional<R> option = rule.match(object);
-            if (option.isPresent()) {
-                return option.get();
-            }
+        return compile().match(object);
+    }
+
+    /**
+     * Pattern matching returning a default value when no rule can be applied.
+     *
+     * @param object    The object to be matched
+     * @param otherwise The value returned when no rule can be applied
+     * @return a computation result done by an accepted rule or the default value
+     */
+    public R matchOrElse(T object, R otherwise) {
+        return compile().matchOrElse(object, otherwise);
+    }
+
+    /**
+     * Pattern matching denoting a failure with an empty result.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by an accepted rule or nothing if no rule can be applied
+     */
+    public Optional<R> matchOptional(T object) {
+        return compile().matchOptional(object);
+    }
+
+    /**
+     * Pattern matching performed by the default executor. See CompiledMatcher.matchAsync(Object).
+     *
+     * @param object The object to be matched
+     * @return a future completed by the accepted rule result or by a MatchingException
+     */
+    public CompletableFuture<R> matchAsync(T object) {
+        return compile().matchAsync(object);
+    }
+
+    /**
+     * Pattern matching performed by a given executor. See CompiledMatcher.matchAsync(Object, Executor).
+     *
+     * @param object   The object to be matched
+     * @param executor The executor performing the pattern matching
+     * @return a future completed by the accepted rule result or by a MatchingException
+     */
+    public CompletableFuture<R> matchAsync(T object, Executor executor) {
+        return compile().matchAsync(object, executor);
+    }
+
+    /**
+     * Checks if a rule can be applied. See CompiledMatcher.isDefinedAt(Object).
+     *
+     * @param object The object to be matched
+     * @return true if a rule can be applied to the object
+     */
+    public boolean isDefinedAt(T object) {
+        return compile().isDefinedAt(object);
+    }
+
+    /**
+     * Checks if a rule can be applied. See CompiledMatcher.isDefinedAt(Object).
+     *
+     * @param object The object to be matched
+     * @return true if a rule can be applied to the object
+     */
+    public boolean test(T object) {
+        return compile().isDefinedAt(object);
+    }
+
+    /**
+     * @return a function performing the pattern matching with the current rule set and returning
+     * an empty result when no rule can be applied
+     */
+    public Function<T, Optional<R>> lift() {
+        return compile().lift();
+    }
+
+    /**
+     * @return a function performing the pattern matching with the current rule set and throwing
+     * a MatchingException when no rule can be applied
+     */
+    public Function<T, R> mapping() {
+        return compile().mapping();
+    }
+
+    /**
+     * @param otherwise The value returned when no rule can be applied
+     * @return a function performing the pattern matching with the current rule set
+     */
+    public Function<T, R> mapping(R otherwise) {
+        return compile().mapping(otherwise);
+    }
+
+    /**
+     * Provides an immutable snapshot of the current rule set. Such compiled matcher
+     * can be shared between threads and is not impacted by rules added afterwards.
+     *
+     * @return the compiled matcher
+     */
+    public CompiledMatcher<T, R> compile() {
+        if (this.compiled == null) {
+            this.compiled = new CompiledMatcher<>(this.rules);
         }
 
-        throw new MatchingException();
+        return this.compiled;
+    }
+
+    /**
+     * Provides a matcher dedicated to the current rule set. See CompiledMatcher.generate().
+     *
+     * @return the generated matcher
+     */
+    public GeneratedMatcher<T, R> generate() {
+        return compile().generate();
+    }
+
+    /**
+     * Provides a memoized matcher dedicated to the current rule set. See CompiledMatcher.memoize(long).
+     *
+     * @param maximumSize The maximum number of cached results
+     * @return the memoized matcher
+     */
+    public MemoizedMatcher<T, R> memoize(long maximumSize) {
+        return compile().memoize(maximumSize);
+    }
+
+    /**
+     * Analyzes the current rule set. See CompiledMatcher.analyze(Class...).
+     *
+     * @param hierarchy The runtime classes of the matched objects, if known
+     * @return the rule set analysis
+     */
+    public Analysis analyze(Class<?>... hierarchy) {
+        return compile().analyze(hierarchy);
+    }
+
+    /**
+     * Provides an adaptive matcher dedicated to the current rule set. See CompiledMatcher.adaptive().
+     *
+     * @return the adaptive matcher
+     */
+    public CompiledMatcher<T, R> adaptive() {
+        return compile().adaptive();
+    }
+
+    /**
+     * Provides a sealed matcher dedicated to the current rule set. See CompiledMatcher.sealed(Class).
+     *
+     * @param root The sealed root of the matched objects
+     * @return the sealed matcher
+     */
+    public CompiledMatcher<T, R> sealed(Class<?> root) {
+        return compile().sealed(root);
+    }
+
+    /**
+     * Provides an instrumented matcher dedicated to the current rule set. See CompiledMatcher.instrument(String).
+     *
+     * @param name The JMX object name used to publish the metrics
+     * @return the instrumented matcher
+     */
+    public CompiledMatcher<T, R> instrument(String name) {
+        return compile().instrument(name);
     }
 
     // =================================================================================================================
@@ -134,48 +403,224 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
 
     @Override
     public Optional<Result.WithoutCapture<R>> unapply(T t) {
-        try {
-            return Optional.of(Result.success(this.match(t)));
-        } catch (MatchingException e) {
-            return Optional.empty();
-        }
+        return compile().unapply(t);
+    }
+
+    @Override
+    public boolean unapply(T t, Captures captures) {
+        return compile().unapply(t, captures);
     }
 
     // =================================================================================================================
 
-    private abstract class Rule<O extends T> {
-        abstract Optional<R> match(O object);
+    private Matcher<T, R> addRule(Rule<T, R> rule) {
+        this.rules.add(rule);
+        this.compiled = null;
+        return this;
+    }
+
+    /**
+     * Adds the rules of a nested matcher with a callback applied to their results. This
+     * is equivalent to a rule using the nested matcher as pattern without condition.
+     */
+    @SuppressWarnings("unchecked")
+    private <C> Matcher<T, R> addRules(List<? extends Rule<?, ?>> nested, Function<C, R> callBack) {
+        for (Rule<?, ?> rule : nested) {
+            addRule(((Rule<T, C>) rule).map(callBack));
+        }
+        return this;
+    }
+
+    /**
+     * Adds the rules of a nested matcher used as pattern without capture. Only the nested
+     * patterns and conditions are evaluated, like the nested matcher does when its result
+     * is ignored.
+     */
+    @SuppressWarnings("unchecked")
+    private Matcher<T, R> addRules(List<? extends Rule<?, ?>> nested, Supplier<R> callBack) {
+        for (Rule<?, ?> rule : nested) {
+            addRule(new NestedRuleWithoutCapture<>((Rule<T, ?>) rule, callBack));
+        }
+        return this;
+    }
+
+    /**
+     * Only compiled matchers are flattened since their rules cannot change. The rules of
+     * a matcher may be added after its use as pattern, e.g. for recursive definitions.
+     *
+     * @param aCase A pattern
+     * @return the rules of the pattern if it's a compiled matcher or null
+     */
+    private static List<? extends Rule<?, ?>> nestedRules(Case<?, ?> aCase) {
+        if (aCase instanceof CompiledMatcher) {
+            return ((CompiledMatcher<?, ?>) aCase).rules();
+        } else {
+            return null;
+        }
+    }
+
+    static abstract class Rule<T, R> extends AbstractRule {
+        /**
+         * Result denoting a rule which cannot be applied
+         */
+        static final Object NO_MATCH = new Object();
+
+        Rule(Case<?, ?> aCase, Object when) {
+            super(aCase, when);
+        }
+
+        Rule(Rule<?, ?> rule) {
+            super(rule);
+        }
+
+        /**
+         * @param object The object to be matched
+         * @return the rule result or NO_MATCH if the rule cannot be applied
+         */
+        abstract Object match(T object);
+
+        /**
+         * @param object The object to be matched
+         * @return true if the pattern and the condition accept the object; the callback is not called
+         */
+        abstract boolean test(T object);
+
+        /**
+         * @param metrics The rule metrics
+         * @return a rule with the same behavior feeding the metrics
+         */
+        abstract Rule<T, R> instrument(MatcherMetrics.RuleMetrics metrics);
+
+        /**
+         * @param function The function applied to the rule result
+         * @param <S>      The new result type
+         * @return a rule with the same pattern and condition
+         */
+        abstract <S> Rule<T, S> map(Function<? super R, ? extends S> function);
+    }
+
+    private static class InstrumentedRule<T, R> extends Rule<T, R> {
+        private final Rule<T, R> rule;
+        private final MatcherMetrics.RuleMetrics metrics;
+
+        private InstrumentedRule(Rule<T, R> rule, MatcherMetrics.RuleMetrics metrics) {
+            super(rule);
+            this.rule = rule;
+            this.metrics = metrics;
+        }
+
+        @Override
+        Object match(T object) {
+            metrics.attempt();
+            final Object result = rule.match(object);
+            if (result != NO_MATCH) {
+                metrics.hit();
+            }
+            return result;
+        }
+
+        @Override
+        boolean test(T object) {
+            metrics.attempt();
+            if (rule.test(object)) {
+                metrics.hit();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Rule<T, R> instrument(MatcherMetrics.RuleMetrics metrics) {
+            return rule.instrument(metrics);
+        }
+
+        @Override
+        <S> Rule<T, S> map(Function<? super R, ? extends S> function) {
+            return new InstrumentedRule<>(rule.map(function), metrics);
+        }
+
+        @Override
+        String describe() {
+            return rule.describe();
+        }
     }
 
     // =================================================================================================================
     // Behaviors for Rule Without Capture
     // =================================================================================================================
 
-    private class RuleWithoutCapture<O extends T, C> extends Rule<O> {
-        private final Case<O, Result.WithoutCapture<C>> aCase;
-        private final Supplier<Boolean> when;
+    private static class RuleWithoutCapture<T, R, C> extends Rule<T, R> {
+        private final Case<T, Result.WithoutCapture<C>> aCase;
+        private final BooleanSupplier when;
         private final Supplier<R> then;
 
-        private RuleWithoutCapture(Case<O, Result.WithoutCapture<C>> aCase, Supplier<Boolean> when, Supplier<R> then) {
-            this.aCase = aCase;
+        @SuppressWarnings("unchecked")
+        private RuleWithoutCapture(Case<? extends T, Result.WithoutCapture<C>> aCase, BooleanSupplier when, Supplier<R> then) {
+            super(aCase, when);
+            this.aCase = (Case<T, Result.WithoutCapture<C>>) aCase;
             this.when = when;
             this.then = then;
         }
 
         @Override
-        Optional<R> match(O object) {
-            return aCase.unapply(object).flatMap(matchResult -> {
-                if (when == null || when.get()) {
-                    return Optional.of(then.get());
-                }
+        Object match(T object) {
+            if (aCase.unapply(object, Captures.ignore()) && (when == null || when.getAsBoolean())) {
+                return then.get();
+            }
+
+            return NO_MATCH;
+        }
+
+        @Override
+        boolean test(T object) {
+            return aCase.unapply(object, Captures.ignore()) && (when == null || when.getAsBoolean());
+        }
+
+        @Override
+        Rule<T, R> instrument(MatcherMetrics.RuleMetrics metrics) {
+            final BooleanSupplier when = this.when == null ? null : metrics.guard(this.when);
+            return new InstrumentedRule<>(new RuleWithoutCapture<>(aCase, when, metrics.callback(then)), metrics);
+        }
+
+        @Override
+        <S> Rule<T, S> map(Function<? super R, ? extends S> function) {
+            return new RuleWithoutCapture<>(aCase, when, () -> Deferred.map(then.get(), function));
+        }
+    }
+
+    private static class NestedRuleWithoutCapture<T, R> extends Rule<T, R> {
+        private final Rule<T, ?> rule;
+        private final Supplier<R> then;
+
+        private NestedRuleWithoutCapture(Rule<T, ?> rule, Supplier<R> then) {
+            super(rule);
+            this.rule = rule;
+            this.then = then;
+        }
+
+        @Override
+        Object match(T object) {
+            return rule.test(object) ? then.get() : NO_MATCH;
+        }
 
-                return Optional.empty();
-            });
+        @Override
+        boolean test(T object) {
+            return rule.test(object);
+        }
+
+        @Override
+        Rule<T, R> instrument(MatcherMetrics.RuleMetrics metrics) {
+            return new InstrumentedRule<>(new NestedRuleWithoutCapture<>(rule, metrics.callback(then)), metrics);
+        }
+
+        @Override
+        <S> Rule<T, S> map(Function<? super R, ? extends S> function) {
+            return new NestedRuleWithoutCapture<>(rule, () -> Deferred.map(then.get(), function));
         }
     }
 
     public class ThenRuleWithoutCapture<C> {
-        protected final Supplier<Boolean> when;
+        protected final BooleanSupplier when;
         protected final Case<? extends T, Result.WithoutCapture<C>> aCase;
 
         public ThenRuleWithoutCapture(Case<? extends T, Result.WithoutCapture<C>> aCase) {
@@ -184,6 +629,10 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
         }
 
         public ThenRuleWithoutCapture(Supplier<Boolean> when, Case<? extends T, Result.WithoutCapture<C>> aCase) {
+            this(when == null ? null : (BooleanSupplier) when::get, aCase);
+        }
+
+        public ThenRuleWithoutCapture(BooleanSupplier when, Case<? extends T, Result.WithoutCapture<C>> aCase) {
             this.when = when;
             this.aCase = aCase;
         }
@@ -193,8 +642,16 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
         }
 
         public Matcher<T, R> then(Supplier<R> callBack) {
-            rules.add(new RuleWithoutCapture<>(aCase, when, callBack));
-            return Matcher.this;
+            final List<? extends Rule<?, ?>> nested = when == null ? nestedRules(aCase) : null;
+            if (nested != null) {
+                return addRules(nested, callBack);
+            }
+
+            return addRule(new RuleWithoutCapture<>(aCase, when, callBack));
+        }
+
+        public Matcher<T, R> thenAsync(Supplier<? extends CompletionStage<R>> callBack) {
+            return then(() -> Deferred.of(callBack.get()));
         }
     }
 
@@ -208,6 +665,10 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
         }
 
         public ThenRuleWithoutCapture when(Supplier<Boolean> callBack) {
+            return new ThenRuleWithoutCapture<>(callBack::get, this.aCase);
+        }
+
+        public ThenRuleWithoutCapture when(BooleanSupplier callBack) {
             return new ThenRuleWithoutCapture<>(callBack, this.aCase);
         }
     }
@@ -217,32 +678,65 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
     // Behaviors for Rule With Capture
     // =================================================================================================================
 
-    private class RuleWithCapture<O extends T, C> extends Rule<O> {
-        private final Case<O, Result.WithCapture<C>> aCase;
-        private final Function<C, Boolean> when;
+    private static class RuleWithCapture<T, R, C> extends Rule<T, R> {
+        private final Case<T, Result.WithCapture<C>> aCase;
+        private final Predicate<C> when;
         private final Function<C, R> then;
 
-        private RuleWithCapture(Case<O, Result.WithCapture<C>> aCase, Function<C, Boolean> when, Function<C, R> then) {
-            this.aCase = aCase;
+        @SuppressWarnings("unchecked")
+        private RuleWithCapture(Case<? extends T, Result.WithCapture<C>> aCase, Predicate<C> when, Function<C, R> then) {
+            super(aCase, when);
+            this.aCase = (Case<T, Result.WithCapture<C>>) aCase;
             this.when = when;
             this.then = then;
         }
 
         @Override
-        Optional<R> match(O object) {
-            return aCase.unapply(object).flatMap(matchResult -> {
-                if (when == null || when.apply(matchResult.resultValue())) {
-                    return Optional.of(then.apply(matchResult.resultValue()));
+        Object match(T object) {
+            final Captures captures = Captures.local();
+            final int size = captures.size();
+
+            try {
+                if (aCase.unapply(object, captures)) {
+                    final C capture = captures.pop();
+                    if (when == null || when.test(capture)) {
+                        return then.apply(capture);
+                    }
                 }
 
-                return Optional.empty();
-            });
+                return NO_MATCH;
+            } finally {
+                captures.reset(size);
+            }
+        }
+
+        @Override
+        boolean test(T object) {
+            final Captures captures = Captures.local();
+            final int size = captures.size();
+
+            try {
+                return aCase.unapply(object, captures) && (when == null || when.test(captures.pop()));
+            } finally {
+                captures.reset(size);
+            }
+        }
+
+        @Override
+        Rule<T, R> instrument(MatcherMetrics.RuleMetrics metrics) {
+            final Predicate<C> when = this.when == null ? null : metrics.guard(this.when);
+            return new InstrumentedRule<>(new RuleWithCapture<>(aCase, when, metrics.callback(then)), metrics);
+        }
+
+        @Override
+        <S> Rule<T, S> map(Function<? super R, ? extends S> function) {
+            return new RuleWithCapture<>(aCase, when, capture -> Deferred.map(then.apply(capture), function));
         }
     }
 
     public class ThenRuleWithCapture<C> {
         protected final Case<? extends T, Result.WithCapture<C>> aCase;
-        protected final Function<C, Boolean> when;
+        protected final Predicate<C> when;
 
         public ThenRuleWithCapture(Case<? extends T, Result.WithCapture<C>> aCase) {
             this.when = null;
@@ -250,18 +744,30 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
         }
 
         public ThenRuleWithCapture(Function<C, Boolean> when, Case<? extends T, Result.WithCapture<C>> aCase) {
+            this(when == null ? null : (Predicate<C>) when::apply, aCase);
+        }
+
+        public ThenRuleWithCapture(Predicate<C> when, Case<? extends T, Result.WithCapture<C>> aCase) {
             this.when = when;
             this.aCase = aCase;
         }
 
         public Matcher<? extends T, R> then(Function<C, R> callBack) {
-            rules.add(new RuleWithCapture<>(aCase, when, callBack));
-            return Matcher.this;
+            final List<? extends Rule<?, ?>> nested =
+                    when == null && aCase instanceof Var.WithoutInnerCapture ? nestedRules(((Var.WithoutInnerCapture<?, ?>) aCase).inner()) : null;
+            if (nested != null) {
+                return addRules(nested, callBack);
+            }
+
+            return addRule(new RuleWithCapture<>(aCase, when, callBack));
         }
 
         public Matcher<? extends T, R> then(R callBack) {
-            rules.add(new RuleWithCapture<>(aCase, when, (c -> callBack)));
-            return Matcher.this;
+            return then(c -> callBack);
+        }
+
+        public Matcher<? extends T, R> thenAsync(Function<C, ? extends CompletionStage<R>> callBack) {
+            return then(c -> Deferred.of(callBack.apply(c)));
         }
     }
 
@@ -275,8 +781,139 @@ public class Matcher<T, R> implements Case.WithoutCapture<T, R> {
         }
 
         public ThenRuleWithCapture<C> when(Function<C, Boolean> callBack) {
+            return when((Predicate<C>) callBack::apply);
+        }
+
+        public ThenRuleWithCapture<C> when(Predicate<C> callBack) {
             return new ThenRuleWithCapture<>(callBack, this.aCase);
         }
+
+        public ThenRuleWithCapture<C> when(Condition<C> callBack) {
+            return when((Predicate<C>) callBack);
+        }
+    }
+
+    // =================================================================================================================
+    // Behaviors for Rule With Multiple Captures
+    // =================================================================================================================
+
+    public class ThenRuleWithCapture3<C1, C2, C3> extends ThenRuleWithCapture<Tuple3<C1, C2, C3>> {
+        public ThenRuleWithCapture3(Predicate<Tuple3<C1, C2, C3>> when, Case<? extends T, Result.WithCapture<Tuple3<C1, C2, C3>>> aCase) {
+            super(when, aCase);
+        }
+
+        public Matcher<? extends T, R> then(Function3<C1, C2, C3, R> callBack) {
+            return then(Functions.function(callBack));
+        }
+    }
+
+    public class WhenRuleWithCapture3<C1, C2, C3> extends WhenRuleWithCapture<Tuple3<C1, C2, C3>> {
+        public WhenRuleWithCapture3(Case<? extends T, Result.WithCapture<Tuple3<C1, C2, C3>>> aCase) {
+            super(aCase);
+        }
+
+        @Override
+        public ThenRuleWithCapture3<C1, C2, C3> when(Predicate<Tuple3<C1, C2, C3>> callBack) {
+            return new ThenRuleWithCapture3<>(callBack, this.aCase);
+        }
+
+        @Override
+        public ThenRuleWithCapture3<C1, C2, C3> when(Condition<Tuple3<C1, C2, C3>> callBack) {
+            return when((Predicate<Tuple3<C1, C2, C3>>) callBack);
+        }
+
+        public Matcher<? extends T, R> then(Function3<C1, C2, C3, R> callBack) {
+            return then(Functions.function(callBack));
+        }
+    }
+
+    public class ThenRuleWithCapture4<C1, C2, C3, C4> extends ThenRuleWithCapture<Tuple4<C1, C2, C3, C4>> {
+        public ThenRuleWithCapture4(Predicate<Tuple4<C1, C2, C3, C4>> when, Case<? extends T, Result.WithCapture<Tuple4<C1, C2, C3, C4>>> aCase) {
+            super(when, aCase);
+        }
+
+        public Matcher<? extends T, R> then(Function4<C1, C2, C3, C4, R> callBack) {
+            return then(Functions.function(callBack));
+        }
+    }
+
+    public class WhenRuleWithCapture4<C1, C2, C3, C4> extends WhenRuleWithCapture<Tuple4<C1, C2, C3, C4>> {
+        public WhenRuleWithCapture4(Case<? extends T, Result.WithCapture<Tuple4<C1, C2, C3, C4>>> aCase) {
+            super(aCase);
+        }
+
+        @Override
+        public ThenRuleWithCapture4<C1, C2, C3, C4> when(Predicate<Tuple4<C1, C2, C3, C4>> callBack) {
+            return new ThenRuleWithCapture4<>(callBack, this.aCase);
+        }
+
+        @Override
+        public ThenRuleWithCapture4<C1, C2, C3, C4> when(Condition<Tuple4<C1, C2, C3, C4>> callBack) {
+            return when((Predicate<Tuple4<C1, C2, C3, C4>>) callBack);
+        }
+
+        public Matcher<? extends T, R> then(Function4<C1, C2, C3, C4, R> callBack) {
+            return then(Functions.function(callBack));
+        }
+    }
+
+    public class ThenRuleWithCapture5<C1, C2, C3, C4, C5> extends ThenRuleWithCapture<Tuple5<C1, C2, C3, C4, C5>> {
+        public ThenRuleWithCapture5(Predicate<Tuple5<C1, C2, C3, C4, C5>> when, Case<? extends T, Result.WithCapture<Tuple5<C1, C2, C3, C4, C5>>> aCase) {
+            super(when, aCase);
+        }
+
+        public Matcher<? extends T, R> then(Function5<C1, C2, C3, C4, C5, R> callBack) {
+            return then(Functions.function(callBack));
+        }
     }
 
-}
\ No newline at end of file
+    public class WhenRuleWithCapture5<C1, C2, C3, C4, C5> extends WhenRuleWithCapture<Tuple5<C1, C2, C3, C4, C5>> {
+        public WhenRuleWithCapture5(Case<? extends T, Result.WithCapture<Tuple5<C1, C2, C3, C4, C5>>> aCase) {
+            super(aCase);
+        }
+
+        @Override
+        public ThenRuleWithCapture5<C1, C2, C3, C4, C5> when(Predicate<Tuple5<C1, C2, C3, C4, C5>> callBack) {
+            return new ThenRuleWithCapture5<>(callBack, this.aCase);
+        }
+
+        @Override
+        public ThenRuleWithCapture5<C1, C2, C3, C4, C5> when(Condition<Tuple5<C1, C2, C3, C4, C5>> callBack) {
+            return when((Predicate<Tuple5<C1, C2, C3, C4, C5>>) callBack);
+        }
+
+        public Matcher<? extends T, R> then(Function5<C1, C2, C3, C4, C5, R> callBack) {
+            return then(Functions.function(callBack));
+        }
+    }
+
+    public class ThenRuleWithCapture6<C1, C2, C3, C4, C5, C6> extends ThenRuleWithCapture<Tuple6<C1, C2, C3, C4, C5, C6>> {
+        public ThenRuleWithCapture6(Predicate<Tuple6<C1, C2, C3, C4, C5, C6>> when, Case<? extends T, Result.WithCapture<Tuple6<C1, C2, C3, C4, C5, C6>>> aCase) {
+            super(when, aCase);
+        }
+
+        public Matcher<? extends T, R> then(Function6<C1, C2, C3, C4, C5, C6, R> callBack) {
+            return then(Functions.function(callBack));
+        }
+    }
+
+    public class WhenRuleWithCapture6<C1, C2, C3, C4, C5, C6> extends WhenRuleWithCapture<Tuple6<C1, C2, C3, C4, C5, C6>> {
+        public WhenRuleWithCapture6(Case<? extends T, Result.WithCapture<Tuple6<C1, C2, C3, C4, C5, C6>>> aCase) {
+            super(aCase);
+        }
+
+        @Override
+        public ThenRuleWithCapture6<C1, C2, C3, C4, C5, C6> when(Predicate<Tuple6<C1, C2, C3, C4, C5, C6>> callBack) {
+            return new ThenRuleWithCapture6<>(callBack, this.aCase);
+        }
+
+        @Override
+        public ThenRuleWithCapture6<C1, C2, C3, C4, C5, C6> when(Condition<Tuple6<C1, C2, C3, C4, C5, C6>> callBack) {
+            return when((Predicate<Tuple6<C1, C2, C3, C4, C5, C6>>) callBack);
+        }
+
+        public Matcher<? extends T, R> then(Function6<C1, C2, C3, C4, C5, C6, R> callBack) {
+            return then(Functions.function(callBack));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+/**
+ * Management interface of an instrumented matcher. Rules are identified by their
+ * declaration index and latencies are given as histograms where the bucket i counts
+ * the sampled evaluations which took between 2^i and 2^(i+1) nanoseconds.
+ */
+public interface MatcherMXBean {
+
+    /**
+     * @return the rule descriptions in declaration order
+     */
+    String[] getRules();
+
+    /**
+     * @return the number of times each rule has been evaluated
+     */
+    long[] getAttempts();
+
+    /**
+     * @return the number of times each rule has accepted the matched object
+     */
+    long[] getHits();
+
+    /**
+     * @return the number of objects accepted by no rule
+     */
+    long getMisses();
+
+    /**
+     * @return the sampled latency histogram of each rule condition
+     */
+    long[][] getGuardLatencies();
+
+    /**
+     * @return the sampled latency histogram of each rule callback
+     */
+    long[][] getCallbackLatencies();
+
+    /**
+     * Resets every counter
+     */
+    void reset();
+}
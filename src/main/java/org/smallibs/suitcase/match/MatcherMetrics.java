@@ -0,0 +1,291 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The MatcherMetrics collects the statistics of an instrumented matcher. Counters are
+ * striped in order to support concurrent pattern matching and latencies are sampled.
+ */
+
+public final class MatcherMetrics implements MatcherMXBean {
+
+    /**
+     * One evaluation out of SAMPLING is timed
+     */
+    private static final int SAMPLING = 64;
+
+    private final ObjectName name;
+    private final String[] descriptions;
+    private final RuleMetrics[] rules;
+    private final LongAdder misses;
+
+    /**
+     * The constructor
+     *
+     * @param name         The JMX object name
+     * @param descriptions The rule descriptions
+     */
+    MatcherMetrics(ObjectName name, String[] descriptions) {
+        this.name = name;
+        this.descriptions = descriptions;
+        this.rules = new RuleMetrics[descriptions.length];
+        this.misses = new LongAdder();
+
+        for (int index = 0; index < rules.length; index++) {
+            rules[index] = new RuleMetrics();
+        }
+    }
+
+    /**
+     * @return the JMX object name
+     */
+    public ObjectName getName() {
+        return name;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server.
+     *
+     * @throws IllegalStateException if the registration fails
+     */
+    void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Unregisters the metrics from the platform MBean server.
+     */
+    public void unregister() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (InstanceNotFoundException | MBeanRegistrationException consume) {
+            // Ignore
+        }
+    }
+
+    // =================================================================================================================
+    // MatcherMXBean implementation
+    // =================================================================================================================
+
+    @Override
+    public String[] getRules() {
+        return descriptions.clone();
+    }
+
+    @Override
+    public long[] getAttempts() {
+        final long[] result = new long[rules.length];
+        for (int index = 0; index < rules.length; index++) {
+            result[index] = rules[index].attempts.sum();
+        }
+        return result;
+    }
+
+    @Override
+    public long[] getHits() {
+        final long[] result = new long[rules.length];
+        for (int index = 0; index < rules.length; index++) {
+            result[index] = rules[index].hits.sum();
+        }
+        return result;
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long[][] getGuardLatencies() {
+        final long[][] result = new long[rules.length][];
+        for (int index = 0; index < rules.length; index++) {
+            result[index] = rules[index].guard.snapshot();
+        }
+        return result;
+    }
+
+    @Override
+    public long[][] getCallbackLatencies() {
+        final long[][] result = new long[rules.length][];
+        for (int index = 0; index < rules.length; index++) {
+            result[index] = rules[index].callback.snapshot();
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        for (RuleMetrics rule : rules) {
+            rule.attempts.reset();
+            rule.hits.reset();
+            rule.guard.reset();
+            rule.callback.reset();
+        }
+        misses.reset();
+    }
+
+    // =================================================================================================================
+
+    RuleMetrics rule(int index) {
+        return rules[index];
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    // =================================================================================================================
+    // Rule metrics
+    // =================================================================================================================
+
+    static final class RuleMetrics {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final Histogram guard = new Histogram();
+        private final Histogram callback = new Histogram();
+
+        void attempt() {
+            attempts.increment();
+        }
+
+        void hit() {
+            hits.increment();
+        }
+
+        BooleanSupplier guard(BooleanSupplier when) {
+            return () -> {
+                if (sampled()) {
+                    final long start = System.nanoTime();
+                    try {
+                        return when.getAsBoolean();
+                    } finally {
+                        guard.record(System.nanoTime() - start);
+                    }
+                }
+
+                return when.getAsBoolean();
+            };
+        }
+
+        <C> Predicate<C> guard(Predicate<C> when) {
+            return capture -> {
+                if (sampled()) {
+                    final long start = System.nanoTime();
+                    try {
+                        return when.test(capture);
+                    } finally {
+                        guard.record(System.nanoTime() - start);
+                    }
+                }
+
+                return when.test(capture);
+            };
+        }
+
+        <R> Supplier<R> callback(Supplier<R> then) {
+            return () -> {
+                if (sampled()) {
+                    final long start = System.nanoTime();
+                    try {
+                        return then.get();
+                    } finally {
+                        callback.record(System.nanoTime() - start);
+                    }
+                }
+
+                return then.get();
+            };
+        }
+
+        <C, R> Function<C, R> callback(Function<C, R> then) {
+            return capture -> {
+                if (sampled()) {
+                    final long start = System.nanoTime();
+                    try {
+                        return then.apply(capture);
+                    } finally {
+                        callback.record(System.nanoTime() - start);
+                    }
+                }
+
+                return then.apply(capture);
+            };
+        }
+
+        private static boolean sampled() {
+            return ThreadLocalRandom.current().nextInt(SAMPLING) == 0;
+        }
+    }
+
+    // =================================================================================================================
+    // Latency histogram
+    // =================================================================================================================
+
+    static final class Histogram {
+        private static final int BUCKETS = 32;
+
+        private final LongAdder[] buckets;
+
+        Histogram() {
+            this.buckets = new LongAdder[BUCKETS];
+            for (int index = 0; index < BUCKETS; index++) {
+                buckets[index] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            final int bucket = 63 - Long.numberOfLeadingZeros(Math.max(nanos, 1));
+            buckets[Math.min(bucket, BUCKETS - 1)].increment();
+        }
+
+        long[] snapshot() {
+            final long[] result = new long[BUCKETS];
+            for (int index = 0; index < BUCKETS; index++) {
+                result[index] = buckets[index].sum();
+            }
+            return result;
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+    }
+}
@@ -19,7 +19,14 @@
 package org.smallibs.suitcase.match;
 
 /**
- * Exception used for pattern matching failure denotation
+ * Exception used for pattern matching failure denotation. The stack trace is only
+ * captured when the system property "suitcase.debug" is set to true.
  */
 public class MatchingException extends RuntimeException {
+
+    private static final boolean DEBUG = Boolean.getBoolean("suitcase.debug");
+
+    public MatchingException() {
+        super(null, null, DEBUG, DEBUG);
+    }
 }
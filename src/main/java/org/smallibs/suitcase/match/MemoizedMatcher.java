@@ -0,0 +1,203 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.Captures;
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Result;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * The MemoizedMatcher performs the pattern matching of a compiled matcher and keeps
+ * the results in a bounded cache keyed by the matched object. Failures are also kept.
+ * <p>
+ * Such matcher can only be used when matched objects are immutable with consistent
+ * equals and hashCode methods and when each rule condition and callback is pure i.e.
+ * its result only depends on its capture. Null objects are never cached.
+ *
+ * @param <T> The matched object type
+ * @param <R> The matching result type
+ */
+
+public final class MemoizedMatcher<T, R> implements Case.WithoutCapture<T, R> {
+
+    /**
+     * Cached result denoting a failure
+     */
+    private static final Object NO_MATCH = new Object();
+
+    /**
+     * Cached result denoting a null result
+     */
+    private static final Object NULL = new Object();
+
+    private final CompiledMatcher<T, R> matcher;
+    private final Cache<T, Object> cache;
+
+    /**
+     * The constructor
+     *
+     * @param matcher       The compiled matcher
+     * @param maximumWeight The maximum weight of the cached objects
+     * @param weigher       The matched object weight function
+     */
+    MemoizedMatcher(CompiledMatcher<T, R> matcher, long maximumWeight, ToLongFunction<? super T> weigher) {
+        this.matcher = matcher;
+        this.cache = new Cache<>(maximumWeight, weigher);
+    }
+
+    /**
+     * Main method performing the pattern matching.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by an accepted rule during pattern matching process
+     * @throws MatchingException when no pattern matching rule can be applied
+     */
+    @SuppressWarnings("unchecked")
+    public R match(T object) throws MatchingException {
+        final Object result = evaluate(object);
+        if (result != Matcher.Rule.NO_MATCH) {
+            return (R) result;
+        }
+
+        throw new MatchingException();
+    }
+
+    /**
+     * Pattern matching returning a default value when no rule can be applied.
+     *
+     * @param object    The object to be matched
+     * @param otherwise The value returned when no rule can be applied
+     * @return a computation result done by an accepted rule or the default value
+     */
+    @SuppressWarnings("unchecked")
+    public R matchOrElse(T object, R otherwise) {
+        final Object result = evaluate(object);
+        return result != Matcher.Rule.NO_MATCH ? (R) result : otherwise;
+    }
+
+    /**
+     * Pattern matching denoting a failure with an empty result.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by an accepted rule or nothing if no rule can be applied
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<R> matchOptional(T object) {
+        final Object result = evaluate(object);
+        return result != Matcher.Rule.NO_MATCH ? Optional.ofNullable((R) result) : Optional.empty();
+    }
+
+    /**
+     * @param otherwise The value returned when no rule can be applied
+     * @return a function performing the pattern matching
+     */
+    public Function<T, R> mapping(R otherwise) {
+        return object -> matchOrElse(object, otherwise);
+    }
+
+    // =================================================================================================================
+    // Cache management
+    // =================================================================================================================
+
+    /**
+     * @return the number of matched objects found in the cache
+     */
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    /**
+     * @return the number of matched objects not found in the cache
+     */
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * @return the number of cached objects evicted
+     */
+    public long evictionCount() {
+        return cache.evictionCount();
+    }
+
+    /**
+     * @return the number of cached objects
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Discards all cached results
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    // =================================================================================================================
+    // Case<_,_> implementation
+    // =================================================================================================================
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Result.WithoutCapture<R>> unapply(T t) {
+        final Object result = evaluate(t);
+        return result != Matcher.Rule.NO_MATCH ? Optional.of(Result.success((R) result)) : Optional.empty();
+    }
+
+    @Override
+    public boolean unapply(T t, Captures captures) {
+        final Object result = evaluate(t);
+        if (result != Matcher.Rule.NO_MATCH) {
+            captures.push(result);
+            return true;
+        }
+
+        return false;
+    }
+
+    // =================================================================================================================
+
+    private Object evaluate(T object) {
+        if (object == null) {
+            return matcher.evaluate(null);
+        }
+
+        final Object cached = cache.get(object);
+        if (cached != null) {
+            return cached == NO_MATCH ? Matcher.Rule.NO_MATCH : unmask(cached);
+        }
+
+        final Object result = matcher.evaluate(object);
+        cache.put(object, result == Matcher.Rule.NO_MATCH ? NO_MATCH : mask(result));
+        return result;
+    }
+
+    private static Object mask(Object result) {
+        return result == null ? NULL : result;
+    }
+
+    private static Object unmask(Object result) {
+        return result == NULL ? null : result;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.Captures;
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Result;
+
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The RecursiveMatcher performs recursive pattern matching in constant stack. Rule
+ * callbacks return a Step which is either a final result or an instruction to continue
+ * the pattern matching with another object. Pending computations are kept in a heap
+ * allocated stack, so deep structures do not overflow the thread stack.
+ *
+ * @param <T> The matched object type
+ * @param <R> The matching result type
+ */
+
+public final class RecursiveMatcher<T, R> implements Case.WithoutCapture<T, R> {
+
+    private final CompiledMatcher<T, Step<T, R>> matcher;
+
+    /**
+     * The constructor
+     *
+     * @param rules The rules
+     */
+    RecursiveMatcher(Rules<T, R> rules) {
+        this.matcher = rules.compile();
+    }
+
+    /**
+     * Main method performing the pattern matching.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by the accepted rules
+     * @throws MatchingException when no pattern matching rule can be applied at a given step
+     */
+    public R match(T object) throws MatchingException {
+        final Object result = evaluate(object);
+        if (result != Matcher.Rule.NO_MATCH) {
+            return unmask(result);
+        }
+
+        throw new MatchingException();
+    }
+
+    /**
+     * Pattern matching denoting a failure with an empty result.
+     *
+     * @param object The object to be matched
+     * @return a computation result done by the accepted rules or nothing if no rule can be applied at a given step
+     */
+    public Optional<R> matchOptional(T object) {
+        final Object result = evaluate(object);
+        return result != Matcher.Rule.NO_MATCH ? Optional.ofNullable(unmask(result)) : Optional.empty();
+    }
+
+    // =================================================================================================================
+    // Case<_,_> implementation
+    // =================================================================================================================
+
+    @Override
+    public Optional<Result.WithoutCapture<R>> unapply(T t) {
+        final Object result = evaluate(t);
+        return result != Matcher.Rule.NO_MATCH ? Optional.of(Result.success(unmask(result))) : Optional.empty();
+    }
+
+    @Override
+    public boolean unapply(T t, Captures captures) {
+        final Object result = evaluate(t);
+        if (result != Matcher.Rule.NO_MATCH) {
+            captures.push(unmask(result));
+            return true;
+        }
+
+        return false;
+    }
+
+    // =================================================================================================================
+
+    @SuppressWarnings("unchecked")
+    private R unmask(Object result) {
+        return ((Done<T, R>) result).value;
+    }
+
+    /**
+     * @param object The object to be matched
+     * @return the final Done step or NO_MATCH
+     */
+    @SuppressWarnings("unchecked")
+    private Object evaluate(T object) {
+        ArrayDeque<Again<T, R>> frames = null;
+        T input = object;
+
+        while (true) {
+            Object step = matcher.evaluate(input);
+
+            while (true) {
+                if (step == Matcher.Rule.NO_MATCH) {
+                    return step;
+                }
+
+                if (step instanceof Again) {
+                    final Again<T, R> again = (Again<T, R>) step;
+                    if (again.mapper != null || again.binder != null) {
+                        if (frames == null) {
+                            frames = new ArrayDeque<>();
+                        }
+                        frames.push(again);
+                    }
+                    input = again.input;
+                    break;
+                }
+
+                if (frames == null || frames.isEmpty()) {
+                    return step;
+                }
+
+                R value = ((Done<T, R>) step).value;
+                step = null;
+
+                while (step == null) {
+                    final Again<T, R> frame = frames.poll();
+                    if (frame == null) {
+                        return new Done<>(value);
+                    } else if (frame.mapper != null) {
+                        value = frame.mapper.apply(value);
+                    } else {
+                        step = frame.binder.apply(value);
+                    }
+                }
+            }
+        }
+    }
+
+    // =================================================================================================================
+    // Steps
+    // =================================================================================================================
+
+    /**
+     * A recursive pattern matching step
+     *
+     * @param <T> The matched object type
+     * @param <R> The matching result type
+     */
+    public static abstract class Step<T, R> {
+        private Step() {
+        }
+    }
+
+    private static final class Done<T, R> extends Step<T, R> {
+        private final R value;
+
+        private Done(R value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Again<T, R> extends Step<T, R> {
+        private final T input;
+        private final Function<? super R, ? extends R> mapper;
+        private final Function<? super R, Step<T, R>> binder;
+
+        private Again(T input, Function<? super R, ? extends R> mapper, Function<? super R, Step<T, R>> binder) {
+            this.input = input;
+            this.mapper = mapper;
+            this.binder = binder;
+        }
+    }
+
+    // =================================================================================================================
+    // Rules definition
+    // =================================================================================================================
+
+    /**
+     * The rule set of a recursive matcher. Callbacks build their steps with the
+     * factories given by this class.
+     *
+     * @param <T> The matched object type
+     * @param <R> The matching result type
+     */
+    public static final class Rules<T, R> extends Matcher<T, Step<T, R>> {
+
+        Rules() {
+            super();
+        }
+
+        /**
+         * @param value The result
+         * @return a step denoting the final result
+         */
+        public Step<T, R> done(R value) {
+            return new Done<>(value);
+        }
+
+        /**
+         * @param input The object to be matched
+         * @return a step denoting a pattern matching performed with another object and
+         * giving the result
+         */
+        public Step<T, R> continueWith(T input) {
+            return new Again<>(input, null, null);
+        }
+
+        /**
+         * @param input  The object to be matched
+         * @param mapper The function applied to the result of the pattern matching
+         * @return a step denoting a pattern matching performed with another object which
+         * result is transformed
+         */
+        public Step<T, R> continueWith(T input, Function<? super R, ? extends R> mapper) {
+            return new Again<>(input, mapper, null);
+        }
+
+        /**
+         * @param input  The object to be matched
+         * @param binder The function giving the next step from the result of the pattern matching
+         * @return a step denoting a pattern matching performed with another object which
+         * result gives the next step
+         */
+        public Step<T, R> continueWithStep(T input, Function<? super R, Step<T, R>> binder) {
+            return new Again<>(input, null, binder);
+        }
+    }
+}
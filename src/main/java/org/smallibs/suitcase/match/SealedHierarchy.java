@@ -0,0 +1,98 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The SealedHierarchy provides the concrete classes of a sealed hierarchy. Sealed types
+ * are only available since Java 17 so the hierarchy is explored reflectively and older
+ * runtimes never recognize a sealed type.
+ */
+
+final class SealedHierarchy {
+
+    private static final Method IS_SEALED;
+    private static final Method GET_PERMITTED_SUBCLASSES;
+
+    static {
+        Method isSealed, getPermittedSubclasses;
+        try {
+            isSealed = Class.class.getMethod("isSealed");
+            getPermittedSubclasses = Class.class.getMethod("getPermittedSubclasses");
+        } catch (NoSuchMethodException e) {
+            isSealed = null;
+            getPermittedSubclasses = null;
+        }
+
+        IS_SEALED = isSealed;
+        GET_PERMITTED_SUBCLASSES = getPermittedSubclasses;
+    }
+
+    private SealedHierarchy() {
+    }
+
+    /**
+     * Provides the concrete classes reachable from a sealed root through permitted
+     * subclasses. Subclasses of a non-sealed class are not known and not provided.
+     *
+     * @param root The sealed root
+     * @return the concrete classes in discovery order
+     * @throws IllegalArgumentException if the root is not a sealed type
+     */
+    static Class<?>[] leaves(Class<?> root) {
+        if (!isSealed(root)) {
+            throw new IllegalArgumentException(root.getName() + " is not a sealed type");
+        }
+
+        final Set<Class<?>> leaves = new LinkedHashSet<>();
+        collect(root, leaves);
+        return leaves.toArray(new Class<?>[leaves.size()]);
+    }
+
+    // =================================================================================================================
+
+    private static void collect(Class<?> type, Set<Class<?>> leaves) {
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            leaves.add(type);
+        }
+
+        if (isSealed(type)) {
+            for (Class<?> subclass : (Class<?>[]) invoke(GET_PERMITTED_SUBCLASSES, type)) {
+                collect(subclass, leaves);
+            }
+        }
+    }
+
+    private static boolean isSealed(Class<?> type) {
+        return IS_SEALED != null && (Boolean) invoke(IS_SEALED, type);
+    }
+
+    private static Object invoke(Method method, Class<?> type) {
+        try {
+            return method.invoke(type);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
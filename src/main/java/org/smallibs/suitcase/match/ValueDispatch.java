@@ -0,0 +1,171 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluation plan of a primitive value rule set. Runs of consecutive unconditional
+ * constant rules are replaced by a lookup table giving the first rule accepting a
+ * given value. Values are represented by long keys i.e. the value itself for integral
+ * values and its bits for double values.
+ */
+
+final class ValueDispatch {
+
+    /**
+     * Minimal number of consecutive constant rules replaced by a table
+     */
+    private static final int TABLE_THRESHOLD = 3;
+
+    /**
+     * Maximal ratio between the range of a dense table and its number of constants
+     */
+    private static final int DENSITY = 4;
+
+    private final int[] steps;
+    private final Table[] tables;
+
+    /**
+     * The constructor
+     *
+     * @param constants True for each unconditional constant rule
+     * @param keys      The key of each constant rule
+     */
+    ValueDispatch(boolean[] constants, long[] keys) {
+        final List<Integer> steps = new ArrayList<>();
+        final List<Table> tables = new ArrayList<>();
+
+        int index = 0;
+        while (index < constants.length) {
+            int end = index;
+            while (end < constants.length && constants[end]) {
+                end += 1;
+            }
+
+            if (end - index >= TABLE_THRESHOLD) {
+                tables.add(Table.of(keys, index, end));
+                steps.add(-tables.size());
+                index = end;
+            } else {
+                steps.add(index);
+                index += 1;
+            }
+        }
+
+        this.steps = steps.stream().mapToInt(Integer::intValue).toArray();
+        this.tables = tables.toArray(new Table[tables.size()]);
+    }
+
+    /**
+     * @return the evaluation steps; a negative step denotes a table
+     */
+    int[] steps() {
+        return steps;
+    }
+
+    /**
+     * @param step A negative step
+     * @param key  The matched value key
+     * @return the index of the first rule accepting the value or -1
+     */
+    int lookup(int step, long key) {
+        return tables[-step - 1].lookup(key);
+    }
+
+    // =================================================================================================================
+
+    private static abstract class Table {
+        abstract int lookup(long key);
+
+        static Table of(long[] keys, int start, int end) {
+            final long[] sorted = Arrays.copyOfRange(keys, start, end);
+            Arrays.sort(sorted);
+
+            final long range = sorted[sorted.length - 1] - sorted[0];
+            if (range >= 0 && range < (long) DENSITY * sorted.length) {
+                return new DenseTable(keys, start, end, sorted[0], (int) range + 1);
+            }
+
+            return new SortedTable(keys, start, end);
+        }
+    }
+
+    /**
+     * Table indexed by the key offset
+     */
+    private static final class DenseTable extends Table {
+        private final long minimum;
+        private final int[] indexes;
+
+        private DenseTable(long[] keys, int start, int end, long minimum, int size) {
+            this.minimum = minimum;
+            this.indexes = new int[size];
+            Arrays.fill(this.indexes, -1);
+            for (int index = end - 1; index >= start; index--) {
+                this.indexes[(int) (keys[index] - minimum)] = index;
+            }
+        }
+
+        @Override
+        int lookup(long key) {
+            final long offset = key - minimum;
+            return offset >= 0 && offset < indexes.length ? indexes[(int) offset] : -1;
+        }
+    }
+
+    /**
+     * Table using a binary search on sorted keys
+     */
+    private static final class SortedTable extends Table {
+        private final long[] keys;
+        private final int[] indexes;
+
+        private SortedTable(long[] keys, int start, int end) {
+            final Integer[] order = new Integer[end - start];
+            for (int index = 0; index < order.length; index++) {
+                order[index] = start + index;
+            }
+            // Stable sort so the first rule of duplicated keys comes first
+            Arrays.sort(order, (i1, i2) -> Long.compare(keys[i1], keys[i2]));
+
+            final List<Integer> unique = new ArrayList<>();
+            for (Integer index : order) {
+                if (unique.isEmpty() || keys[unique.get(unique.size() - 1)] != keys[index]) {
+                    unique.add(index);
+                }
+            }
+
+            this.keys = new long[unique.size()];
+            this.indexes = new int[unique.size()];
+            for (int index = 0; index < unique.size(); index++) {
+                this.indexes[index] = unique.get(index);
+                this.keys[index] = keys[this.indexes[index]];
+            }
+        }
+
+        @Override
+        int lookup(long key) {
+            final int position = Arrays.binarySearch(keys, key);
+            return position >= 0 ? indexes[position] : -1;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+
+/**
+ * Rule set shared by the primitive value matchers. Rules are keyed on long values i.e.
+ * the value itself for integral values and its bits for double values; each typed
+ * matcher adapts its patterns, conditions and callbacks to such keys.
+ *
+ * @param <R> The matching result type
+ */
+
+final class ValueRules<R> {
+
+    /**
+     * The rule set
+     */
+    private final List<Rule<R>> rules;
+
+    /**
+     * The evaluation plan, built on demand and dropped each time a rule is added
+     */
+    private Plan<R> plan;
+
+    /**
+     * The constructor
+     */
+    ValueRules() {
+        this.rules = new ArrayList<>();
+        this.plan = null;
+    }
+
+    /**
+     * @param pattern The pattern
+     * @param when    The condition or null
+     * @param then    The callback
+     */
+    void add(LongPredicate pattern, LongPredicate when, LongFunction<R> then) {
+        addRule(new Rule<>(pattern, when, then, false, 0));
+    }
+
+    /**
+     * @param key  The key accepted by the rule
+     * @param then The callback
+     */
+    void addConstant(long key, LongFunction<R> then) {
+        addRule(new Rule<>(value -> value == key, null, then, true, key));
+    }
+
+    /**
+     * @param key The matched value key
+     * @return a computation result done by an accepted rule during pattern matching process
+     * @throws MatchingException when no pattern matching rule can be applied
+     */
+    @SuppressWarnings("unchecked")
+    R match(long key) throws MatchingException {
+        final Object result = plan().evaluate(key);
+        if (result != Matcher.Rule.NO_MATCH) {
+            return (R) result;
+        }
+
+        throw new MatchingException();
+    }
+
+    /**
+     * @param key       The matched value key
+     * @param otherwise The value returned when no rule can be applied
+     * @return a computation result done by an accepted rule or the default value
+     */
+    R matchOrElse(long key, R otherwise) {
+        return plan().orElse(key, otherwise);
+    }
+
+    /**
+     * @param key The matched value key
+     * @return a computation result done by an accepted rule or nothing if no rule can be applied
+     */
+    @SuppressWarnings("unchecked")
+    Optional<R> matchOptional(long key) {
+        final Object result = plan().evaluate(key);
+        return result != Matcher.Rule.NO_MATCH ? Optional.ofNullable((R) result) : Optional.empty();
+    }
+
+    /**
+     * @param otherwise The value returned when no rule can be applied
+     * @return a function performing the pattern matching of keys with the current rule set
+     */
+    LongFunction<R> mapping(R otherwise) {
+        final Plan<R> plan = plan();
+        return key -> plan.orElse(key, otherwise);
+    }
+
+    // =================================================================================================================
+
+    private void addRule(Rule<R> rule) {
+        this.rules.add(rule);
+        this.plan = null;
+    }
+
+    private Plan<R> plan() {
+        if (this.plan == null) {
+            this.plan = new Plan<>(this.rules);
+        }
+
+        return this.plan;
+    }
+
+    /**
+     * Immutable evaluation plan of a rule set
+     */
+    private static final class Plan<R> {
+        private final Rule<R>[] rules;
+        private final ValueDispatch dispatch;
+
+        @SuppressWarnings("unchecked")
+        private Plan(List<Rule<R>> rules) {
+            this.rules = rules.toArray(new Rule[rules.size()]);
+
+            final boolean[] constants = new boolean[this.rules.length];
+            final long[] keys = new long[this.rules.length];
+            for (int index = 0; index < this.rules.length; index++) {
+                constants[index] = this.rules[index].constant;
+                keys[index] = this.rules[index].key;
+            }
+
+            this.dispatch = new ValueDispatch(constants, keys);
+        }
+
+        @SuppressWarnings("unchecked")
+        private R orElse(long key, R otherwise) {
+            final Object result = evaluate(key);
+            return result != Matcher.Rule.NO_MATCH ? (R) result : otherwise;
+        }
+
+        private Object evaluate(long key) {
+            final int[] steps = dispatch.steps();
+            for (int step = 0; step < steps.length; step++) {
+                if (steps[step] < 0) {
+                    final int index = dispatch.lookup(steps[step], key);
+                    if (index >= 0) {
+                        return rules[index].then.apply(key);
+                    }
+                } else {
+                    final Object result = rules[steps[step]].match(key);
+                    if (result != Matcher.Rule.NO_MATCH) {
+                        return result;
+                    }
+                }
+            }
+
+            return Matcher.Rule.NO_MATCH;
+        }
+    }
+
+    private static final class Rule<R> {
+        private final LongPredicate pattern;
+        private final LongPredicate when;
+        private final LongFunction<R> then;
+        private final boolean constant;
+        private final long key;
+
+        private Rule(LongPredicate pattern, LongPredicate when, LongFunction<R> then, boolean constant, long key) {
+            this.pattern = pattern;
+            this.when = when;
+            this.then = then;
+            this.constant = constant;
+            this.key = key;
+        }
+
+        private Object match(long key) {
+            if (pattern.test(key) && (when == null || when.test(key))) {
+                return then.apply(key);
+            }
+
+            return Matcher.Rule.NO_MATCH;
+        }
+    }
+}
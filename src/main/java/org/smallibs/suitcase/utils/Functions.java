@@ -19,6 +19,7 @@
 package org.smallibs.suitcase.utils;
 
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public final class Functions {
@@ -31,20 +32,20 @@ public final class Functions {
         return params -> function.apply(params._1, params._2);
     }
 
-    public static <C1, C2, C3, R> Function<Pair<C1, Pair<C2, C3>>, R> function(Function3<C1, C2, C3, R> function) {
-        return params -> function.apply(params._1, params._2._1, params._2._2);
+    public static <C1, C2, C3, R> Function<Tuple3<C1, C2, C3>, R> function(Function3<C1, C2, C3, R> function) {
+        return params -> function.apply(params._1, params._2, params._3);
     }
 
-    public static <C1, C2, C3, C4, R> Function<Pair<C1, Pair<C2, Pair<C3, C4>>>, R> function(Function4<C1, C2, C3, C4, R> function) {
-        return params -> function.apply(params._1, params._2._1, params._2._2._1, params._2._2._2);
+    public static <C1, C2, C3, C4, R> Function<Tuple4<C1, C2, C3, C4>, R> function(Function4<C1, C2, C3, C4, R> function) {
+        return params -> function.apply(params._1, params._2, params._3, params._4);
     }
 
-    public static <C1, C2, C3, C4, C5, R> Function<Pair<C1, Pair<C2, Pair<C3, Pair<C4, C5>>>>, R> function(Function5<C1, C2, C3, C4, C5, R> function) {
-        return params -> function.apply(params._1, params._2._1, params._2._2._1, params._2._2._2._1, params._2._2._2._2);
+    public static <C1, C2, C3, C4, C5, R> Function<Tuple5<C1, C2, C3, C4, C5>, R> function(Function5<C1, C2, C3, C4, C5, R> function) {
+        return params -> function.apply(params._1, params._2, params._3, params._4, params._5);
     }
 
-    public static <C1, C2, C3, C4, C5, C6, R> Function<Pair<C1, Pair<C2, Pair<C3, Pair<C4, Pair<C5, C6>>>>>, R> function(Function6<C1, C2, C3, C4, C5, C6, R> function) {
-        return params -> function.apply(params._1, params._2._1, params._2._2._1, params._2._2._2._1, params._2._2._2._2._1, params._2._2._2._2._2);
+    public static <C1, C2, C3, C4, C5, C6, R> Function<Tuple6<C1, C2, C3, C4, C5, C6>, R> function(Function6<C1, C2, C3, C4, C5, C6, R> function) {
+        return params -> function.apply(params._1, params._2, params._3, params._4, params._5, params._6);
     }
 
     //
@@ -70,5 +71,17 @@ public final class Functions {
     public interface Function6<A, B, C, D, E, F, R> {
         R apply(A a, B b, C c, D d, E e, F f);
     }
+
+    /**
+     * Condition usable as a Predicate or as a Function returning a Boolean. Since it's a
+     * subtype of both, methods overloaded for these two types also accept an implicitly
+     * typed lambda when they have a Condition overload.
+     */
+    public interface Condition<A> extends Predicate<A>, Function<A, Boolean> {
+        @Override
+        default Boolean apply(A a) {
+            return test(a);
+        }
+    }
 }
 
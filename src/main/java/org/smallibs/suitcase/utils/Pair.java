@@ -18,6 +18,8 @@
 
 package org.smallibs.suitcase.utils;
 
+import java.util.Objects;
+
 public class Pair<T1, T2> {
 
     public final T1 _1;
@@ -27,4 +29,23 @@ public class Pair<T1, T2> {
         this._1 = _1;
         this._2 = _2;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final Pair<?, ?> pair = (Pair<?, ?>) o;
+        return Objects.equals(_1, pair._1) && Objects.equals(_2, pair._2);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(_1, _2);
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.utils;
+
+import java.util.Objects;
+
+public class Tuple3<T1, T2, T3> {
+
+    public final T1 _1;
+    public final T2 _2;
+    public final T3 _3;
+
+    public Tuple3(T1 _1, T2 _2, T3 _3) {
+        this._1 = _1;
+        this._2 = _2;
+        this._3 = _3;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final Tuple3<?, ?, ?> tuple = (Tuple3<?, ?, ?>) o;
+        return Objects.equals(_1, tuple._1) && Objects.equals(_2, tuple._2) && Objects.equals(_3, tuple._3);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(_1, _2, _3);
+    }
+}
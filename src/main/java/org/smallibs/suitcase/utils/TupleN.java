@@ -0,0 +1,61 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.utils;
+
+import java.util.Arrays;
+
+/**
+ * Tuple of any arity. It's used by patterns deconstructing objects in more than
+ * six components.
+ */
+public final class TupleN {
+
+    private final Object[] values;
+
+    public TupleN(Object... values) {
+        this.values = values.clone();
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(int index) {
+        return (V) values[index];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        return Arrays.equals(values, ((TupleN) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+}
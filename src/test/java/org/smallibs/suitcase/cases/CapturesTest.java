@@ -0,0 +1,115 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.cases;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.smallibs.suitcase.cases.ExprTest.Expr;
+import org.smallibs.suitcase.utils.Pair;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.smallibs.suitcase.cases.ExprTest.Patterns.Add;
+import static org.smallibs.suitcase.cases.ExprTest.Patterns.Add3;
+import static org.smallibs.suitcase.cases.ExprTest.Patterns.Nat;
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Constant;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+import static org.smallibs.suitcase.cases.lang.Lists.Cons;
+import static org.smallibs.suitcase.cases.lang.Lists.Empty;
+
+public class CapturesTest {
+
+    @Test
+    public void shouldPushCapturedValue() throws Exception {
+        final Captures captures = Captures.create();
+
+        TestCase.assertTrue(Nat.$(Var()).unapply(Expr.Nat(1), captures));
+        TestCase.assertEquals(captures.size(), 1);
+        TestCase.assertEquals((int) captures.pop(), 1);
+    }
+
+    @Test
+    public void shouldPushCapturedPair() throws Exception {
+        final Captures captures = Captures.create();
+
+        TestCase.assertTrue(Add.$(Nat.$(Var()), Nat.$(Var())).unapply(Expr.Add(Expr.Nat(1), Expr.Nat(2)), captures));
+        final Pair<Integer, Integer> pair = captures.pop();
+
+        TestCase.assertEquals((int) pair._1, 1);
+        TestCase.assertEquals((int) pair._2, 2);
+        TestCase.assertEquals(captures.size(), 0);
+    }
+
+    @Test
+    public void shouldPushOnlyCapturedValues() throws Exception {
+        final Captures captures = Captures.create();
+
+        TestCase.assertTrue(Add3.$(Nat.$(Any()), Var(), Nat.$(Constant(3))).unapply(Expr.Add3(Expr.Nat(1), Expr.Nat(2), Expr.Nat(3)), captures));
+        final Expr expr = captures.pop();
+
+        TestCase.assertEquals(((Expr.Nat) expr).val, 2);
+        TestCase.assertEquals(captures.size(), 0);
+    }
+
+    @Test
+    public void shouldLeaveCapturesUnchangedWhenMatchFails() throws Exception {
+        final Captures captures = Captures.create();
+
+        TestCase.assertFalse(Add.$(Nat.$(Var()), Nat.$(Constant(3))).unapply(Expr.Add(Expr.Nat(1), Expr.Nat(2)), captures));
+        TestCase.assertEquals(captures.size(), 0);
+    }
+
+    @Test
+    public void shouldPushInnerCapturedValue() throws Exception {
+        final Captures captures = Captures.create();
+        final List<Integer> list = Arrays.asList(1, 2);
+
+        final Case.WithCapture<List<Integer>, Pair<List<Integer>, Integer>> aCase = Var(Cons(Var(), Any()));
+
+        TestCase.assertTrue(aCase.unapply(list, captures));
+        final Pair<List<Integer>, Integer> pair = captures.pop();
+
+        TestCase.assertEquals(pair._1, list);
+        TestCase.assertEquals((int) pair._2, 1);
+    }
+
+    @Test
+    public void shouldIgnoreCapturedValues() throws Exception {
+        final Captures captures = Captures.ignore();
+
+        final Case.WithCapture<List<Integer>, Integer> aCase = Cons(Var(), Empty());
+
+        TestCase.assertTrue(aCase.unapply(Arrays.asList(1), captures));
+        TestCase.assertEquals(captures.size(), 0);
+    }
+
+    @Test
+    public void shouldAdaptOptionalBasedCase() throws Exception {
+        final Captures captures = Captures.create();
+        final Case.WithCapture<Integer, Integer> aCase = i -> i > 0 ? Optional.of(Result.successWithCapture(i)) : Optional.empty();
+
+        TestCase.assertTrue(aCase.unapply(1, captures));
+        TestCase.assertFalse(aCase.unapply(0, captures));
+        TestCase.assertEquals((int) captures.pop(), 1);
+        TestCase.assertEquals(captures.size(), 0);
+    }
+}
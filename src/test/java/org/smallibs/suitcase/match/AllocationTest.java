@@ -0,0 +1,114 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Assume;
+import org.junit.Test;
+import org.smallibs.suitcase.cases.Captures;
+import org.smallibs.suitcase.cases.Case;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Supplier;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Constant;
+import static org.smallibs.suitcase.cases.core.Cases.Null;
+import static org.smallibs.suitcase.cases.core.Cases.typeOf;
+
+/**
+ * Checks the capture-free path of the Captures protocol performs no allocation, using the
+ * thread allocation counter provided by the HotSpot runtime. Since this path creates no
+ * object at all, the exact allocated size is checked and the result does not depend on
+ * the escape analysis done by the JIT.
+ */
+public class AllocationTest {
+
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    public void shouldNotAllocateWhenMatchingConstants() throws Exception {
+        final Matcher<Object, Integer> matcher = Matcher.create();
+        matcher.caseOf(Constant("a")).then(1);
+        matcher.caseOf(Constant("b")).then(2);
+        matcher.caseOf(Constant("c")).then(3);
+
+        final CompiledMatcher<Object, Integer> compiled = matcher.compile();
+
+        TestCase.assertEquals(allocated(() -> compiled.match("b")), 0L);
+    }
+
+    @Test
+    public void shouldNotAllocateWhenMatchingTypes() throws Exception {
+        final Matcher<Object, Integer> matcher = Matcher.create();
+        matcher.caseOf(typeOf(String.class)).then(1);
+        matcher.caseOf(Any()).then(2);
+
+        final CompiledMatcher<Object, Integer> compiled = matcher.compile();
+        final Object value = 42L;
+
+        TestCase.assertEquals(allocated(() -> compiled.match("b")), 0L);
+        TestCase.assertEquals(allocated(() -> compiled.match(value)), 0L);
+    }
+
+    @Test
+    public void shouldNotAllocateWhenIgnoringCaptures() throws Exception {
+        final Case.WithoutCapture<String, String> constant = Constant("a");
+        final Case.WithoutCapture<String, String> any = Any();
+        final Case.WithoutCapture<String, String> type = typeOf(String.class);
+        final String value = "a";
+
+        TestCase.assertEquals(allocated(() -> constant.unapply(value, Captures.ignore())), 0L);
+        TestCase.assertEquals(allocated(() -> any.unapply(value, Captures.ignore())), 0L);
+        TestCase.assertEquals(allocated(() -> type.unapply(value, Captures.ignore())), 0L);
+    }
+
+    @Test
+    public void shouldShareResultOfIdenticalConstant() throws Exception {
+        final String value = "a";
+        final Case.WithoutCapture<String, String> constant = Constant(value);
+        final Case.WithoutCapture<String, String> nothing = Null();
+
+        TestCase.assertTrue(constant.unapply(value) == constant.unapply(value));
+        TestCase.assertTrue(nothing.unapply(null) == nothing.unapply(null));
+    }
+
+    // =================================================================================================================
+
+    private static long allocated(Supplier<?> match) {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        final long thread = Thread.currentThread().getId();
+
+        for (int index = 0; index < ITERATIONS; index++) {
+            match.get();
+        }
+
+        final long start = threads.getThreadAllocatedBytes(thread);
+        for (int index = 0; index < ITERATIONS; index++) {
+            match.get();
+        }
+        return threads.getThreadAllocatedBytes(thread) - start;
+    }
+}
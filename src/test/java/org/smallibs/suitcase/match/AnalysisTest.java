@@ -0,0 +1,182 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.smallibs.suitcase.cases.core.Case2;
+import org.smallibs.suitcase.cases.core.Case3;
+import org.smallibs.suitcase.cases.core.TypeCase;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Constant;
+import static org.smallibs.suitcase.cases.core.Cases.Null;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+import static org.smallibs.suitcase.cases.lang.Pairs.Pair;
+
+public class AnalysisTest {
+
+    private final Case2<Point, Point, Integer, Integer> PointCase = TypeCase.of(Point.class, p -> p.x, p -> p.y);
+    private final Case3<Segment, Segment, Point, Point, String> SegmentCase = TypeCase.of(Segment.class, s -> s.from, s -> s.to, s -> s.name);
+
+    @Test
+    public void shouldFindShadowedRules() throws Exception {
+        final Matcher<Object, String> matcher = Matcher.create();
+
+        matcher.caseOf(Integer.class).then("integer");
+        matcher.caseOf(1).then("one");
+        matcher.caseOf("a").then("a");
+        matcher.caseOf("a").then("again");
+        matcher.caseOf(Any()).then("any");
+        matcher.caseOf(Null()).then("null");
+
+        final Analysis analysis = matcher.analyze();
+
+        TestCase.assertEquals(analysis.shadowedRules(), Arrays.asList(1, 3, 5));
+        TestCase.assertTrue(analysis.isExhaustive());
+    }
+
+    @Test
+    public void shouldNotBeShadowedByConditionalRules() throws Exception {
+        final Matcher<Integer, String> matcher = Matcher.create();
+
+        matcher.caseOf(Var()).when(i -> i > 0).then(i -> "positive");
+        matcher.caseOf(1).then("one");
+
+        final Analysis analysis = matcher.analyze();
+
+        TestCase.assertEquals(analysis.shadowedRules(), Collections.emptyList());
+        TestCase.assertFalse(analysis.isExhaustive());
+    }
+
+    @Test
+    public void shouldFindShadowedComponents() throws Exception {
+        final Matcher<Point, String> matcher = Matcher.create();
+
+        matcher.caseOf(PointCase.$(Constant(0), Any())).then("x axis");
+        matcher.caseOf(PointCase.$(Constant(0), Constant(1))).then("never");
+        matcher.caseOf(PointCase.$(Any(), Any())).then("point");
+        matcher.caseOf(PointCase.$(Any(), Constant(0))).then("never");
+
+        final Analysis analysis = matcher.analyze(Point.class);
+
+        TestCase.assertEquals(analysis.shadowedRules(), Arrays.asList(1, 3));
+        TestCase.assertTrue(analysis.isExhaustive());
+    }
+
+    @Test
+    public void shouldRemoveShadowedRulesFromEvaluation() throws Exception {
+        final Matcher<Object, String> matcher = Matcher.create();
+
+        matcher.caseOf(Integer.class).then("integer");
+        matcher.caseOf(1).then("one");
+        matcher.caseOf(String.class).then("string");
+
+        TestCase.assertEquals(matcher.compile().evaluationOrder(Integer.class), Collections.singletonList(0));
+        TestCase.assertEquals(matcher.match(1), "integer");
+    }
+
+    @Test
+    public void shouldFindDisjointGroups() throws Exception {
+        final Matcher<Object, String> matcher = Matcher.create();
+
+        matcher.caseOf(PointCase.$(Constant(0), Any())).then("x axis");
+        matcher.caseOf(PointCase.$(Constant(1), Any())).then("x = 1");
+        matcher.caseOf(SegmentCase.$(Any(), Any(), Constant("s"))).then("segment");
+        matcher.caseOf(PointCase.$(Any(), Constant(0))).then("y axis");
+        matcher.caseOf(Pair(1, Any())).then("pair");
+        matcher.caseOf(Pair(2, Any())).then("pair");
+
+        final Analysis analysis = matcher.analyze();
+
+        TestCase.assertEquals(analysis.disjointGroups(), Arrays.asList(Arrays.asList(0, 1), Collections.singletonList(2), Collections.singletonList(3), Arrays.asList(4, 5)));
+    }
+
+    @Test
+    public void shouldNotFindDisjointTypes() throws Exception {
+        final Matcher<Object, String> matcher = Matcher.create();
+
+        matcher.caseOf(Integer.class).then("integer");
+        matcher.caseOf(String.class).then("string");
+        matcher.caseOf(Number.class).then("number");
+
+        final Analysis analysis = matcher.analyze();
+
+        TestCase.assertEquals(analysis.disjointGroups(), Arrays.asList(Collections.singletonList(0), Collections.singletonList(1), Collections.singletonList(2)));
+    }
+
+    @Test
+    public void shouldCheckExhaustiveness() throws Exception {
+        final Matcher<Object, String> matcher = Matcher.create();
+
+        matcher.caseOf(Point.class).then("point");
+        matcher.caseOf(SegmentCase.$(Any(), Any(), Constant("s"))).then("segment");
+
+        final Analysis analysis = matcher.analyze(Point.class, Segment.class);
+
+        TestCase.assertEquals(analysis.uncoveredTypes(), Collections.singletonList(Segment.class));
+        TestCase.assertFalse(analysis.isExhaustive());
+
+        matcher.caseOf(SegmentCase.$(Any(), Any(), Any())).then("segment");
+
+        TestCase.assertTrue(matcher.analyze(Point.class, Segment.class).isExhaustive());
+    }
+
+    @Test
+    public void shouldReorderDisjointComponents() throws Exception {
+        final Matcher<Point, String> matcher = Matcher.create();
+
+        matcher.caseOf(PointCase.$(Constant(0), Any())).then("x = 0");
+        matcher.caseOf(PointCase.$(Constant(1), Any())).then("x = 1");
+        matcher.caseOf(PointCase.$(Any(), Any())).then("point");
+
+        final CompiledMatcher<Point, String> adaptive = matcher.compile().adaptive(10);
+
+        for (int i = 0; i < 10; i++) {
+            TestCase.assertEquals(adaptive.match(new Point(1, i)), "x = 1");
+        }
+
+        TestCase.assertEquals(adaptive.evaluationOrder(Point.class), Arrays.asList(1, 0, 2));
+        TestCase.assertEquals(adaptive.match(new Point(0, 1)), "x = 0");
+    }
+
+    public static final class Point {
+        final int x;
+        final int y;
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public static final class Segment {
+        final Point from;
+        final Point to;
+        final String name;
+
+        Segment(Point from, Point to, String name) {
+            this.from = from;
+            this.to = to;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+
+public class AsyncMatcherTest {
+
+    @Test
+    public void shouldMatchAsynchronously() throws Exception {
+        final Matcher<Integer, String> matcher = Matcher.create();
+
+        matcher.caseOf(1).then("one");
+        matcher.caseOf(Var()).thenAsync(i -> CompletableFuture.supplyAsync(() -> "other " + i));
+
+        TestCase.assertEquals(matcher.matchAsync(1).get(), "one");
+        TestCase.assertEquals(matcher.matchAsync(2).get(), "other 2");
+    }
+
+    @Test
+    public void shouldMatchAsynchronousRuleSynchronously() throws Exception {
+        final Matcher<Integer, String> matcher = Matcher.create();
+
+        matcher.caseOf(1).thenAsync(() -> CompletableFuture.supplyAsync(() -> "one"));
+        matcher.caseOf(Any()).then("other");
+
+        TestCase.assertEquals(matcher.match(1), "one");
+        TestCase.assertEquals(matcher.generate().match(1), "one");
+        TestCase.assertEquals(matcher.memoize(10).match(1), "one");
+    }
+
+    @Test
+    public void shouldResolveAsynchronousRuleInGeneratedHandle() throws Throwable {
+        final Matcher<Integer, String> matcher = Matcher.create();
+
+        matcher.caseOf(1).thenAsync(() -> CompletableFuture.supplyAsync(() -> "one"));
+        matcher.caseOf(Any()).then("other");
+
+        TestCase.assertEquals(matcher.generate().handle().invoke(1), "one");
+        TestCase.assertEquals(matcher.generate().handle().invoke(2), "other");
+    }
+
+    @Test
+    public void shouldFailAsynchronously() throws Exception {
+        final Matcher<Integer, String> matcher = Matcher.create();
+
+        matcher.caseOf(1).then("one");
+
+        try {
+            matcher.matchAsync(2).get();
+            TestCase.fail();
+        } catch (ExecutionException e) {
+            TestCase.assertTrue(e.getCause() instanceof MatchingException);
+        }
+    }
+
+    @Test
+    public void shouldComposeNestedAsynchronousRules() throws Exception {
+        final Matcher<Integer, String> small = Matcher.create();
+        small.caseOf(1).thenAsync(() -> CompletableFuture.supplyAsync(() -> "one"));
+
+        final Matcher<Integer, String> number = Matcher.create();
+        number.caseOf(Var(small)).thenAsync(s -> CompletableFuture.supplyAsync(() -> "small " + s));
+        number.caseOf(Any()).then("other");
+
+        TestCase.assertEquals(number.matchAsync(1).get(), "small one");
+        TestCase.assertEquals(number.match(1), "small one");
+        TestCase.assertEquals(number.matchAsync(2).get(), "other");
+    }
+
+    @Test
+    public void shouldUseGivenExecutor() throws Exception {
+        final Thread[] threads = new Thread[1];
+        final Executor executor = command -> {
+            threads[0] = Thread.currentThread();
+            command.run();
+        };
+
+        final Matcher<Integer, Thread> matcher = Matcher.create();
+        matcher.caseOf(Any()).then(Thread::currentThread);
+
+        TestCase.assertEquals(matcher.matchAsync(1, executor).get(), threads[0]);
+    }
+
+    @Test
+    public void shouldDefineDefaultExecutor() throws Exception {
+        final Executor executor = Runnable::run;
+
+        try {
+            Matcher.defaultExecutor(executor);
+            TestCase.assertEquals(Matcher.defaultExecutor(), executor);
+        } finally {
+            Matcher.defaultExecutor(null);
+        }
+
+        TestCase.assertNotNull(Matcher.defaultExecutor());
+    }
+}
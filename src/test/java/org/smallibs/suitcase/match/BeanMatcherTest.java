@@ -2,11 +2,15 @@ package org.smallibs.suitcase.match;
 
 import junit.framework.TestCase;
 import org.junit.Test;
+import org.smallibs.suitcase.cases.lang.Beans;
 import org.smallibs.suitcase.match.models.T;
+import org.smallibs.suitcase.utils.TupleN;
 
 import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Constant;
 import static org.smallibs.suitcase.cases.core.Cases.Var;
 import static org.smallibs.suitcase.cases.lang.Beans.Att;
+import static org.smallibs.suitcase.cases.lang.Beans.Bean;
 
 public class BeanMatcherTest {
 
@@ -82,6 +86,53 @@ public class BeanMatcherTest {
         TestCase.assertEquals((int) attribute.match(t), 2);
     }
 
+    @Test
+    public void shouldFindAttributeValueByNamePattern() throws Exception {
+        final T t = new T(1, 2);
+
+        Matcher<T, Boolean> attribute = Matcher.create();
+
+        attribute.caseOf(Att(Any(), Constant(2))).then(true);
+        attribute.caseOf(Any()).then(false);
+
+        TestCase.assertTrue(attribute.match(t));
+        TestCase.assertFalse(attribute.match(new T(1, 1)));
+    }
+
+    @Test
+    public void shouldFindSeveralAttributeValues() throws Exception {
+        final T t = new T(1, 2);
+
+        Matcher<T, Integer> attribute = Matcher.create();
+
+        attribute.caseOf(Bean(Att("v1", Constant(1)), Att("v2", Var(Integer.class)))).then(e -> e.<Integer>get(0));
+        attribute.caseOf(Bean(Att("v1", Var(Integer.class)), Att("v2", Var(Integer.class)))).then(e -> e.<Integer>get(0) + e.<Integer>get(1));
+        attribute.caseOf(Any()).then(0);
+
+        TestCase.assertEquals((int) attribute.match(t), 2);
+        TestCase.assertEquals((int) attribute.match(new T(3, 4)), 7);
+    }
+
+    @Test
+    public void shouldNotFindSeveralAttributeValues() throws Exception {
+        final T t = new T(1, 2);
+
+        Matcher<T, Boolean> attribute = Matcher.create();
+
+        attribute.caseOf(Bean(Att("v1", Constant(1)), Att("v3", Any()))).then(true);
+        attribute.caseOf(Bean(Att("v1", Constant(2)), Att("v2", Any()))).then(true);
+        attribute.caseOf(Any()).then(false);
+
+        TestCase.assertFalse(attribute.match(t));
+    }
+
+    @Test
+    public void shouldKeepAllAttributeValuesWithoutCapture() throws Exception {
+        final T t = new T(1, 2);
+
+        TestCase.assertEquals(Beans.<T>Bean(Att("v1", Any()), Att("v2", Any())).unapply(t).get().resultValue(), new TupleN(1, 2));
+    }
+
     //
     // Class Test
     //
@@ -2,6 +2,8 @@ package org.smallibs.suitcase.match;
 
 import junit.framework.TestCase;
 import org.junit.Test;
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.Result;
 import org.smallibs.suitcase.cases.core.Case2;
 import org.smallibs.suitcase.cases.core.TypeCase;
 
@@ -66,6 +68,23 @@ public class Case2MatchTest {
         TestCase.assertTrue(matcher.match(new C(1, 2)));
     }
 
+    @Test
+    public void shouldMatchWithPatternRelyingOnBothResults() throws Exception {
+        final Case<C, Result.WithoutCapture<Integer>> pattern = CC.new Pattern<>((c1, c2) -> c1, Constant(1), Constant(2));
+
+        TestCase.assertTrue(pattern.unapply(new C(1, 2)).isPresent());
+        TestCase.assertFalse(pattern.unapply(new C(1, 3)).isPresent());
+    }
+
+    @Test
+    public void shouldMatchWithCombinedPattern() throws Exception {
+        Matcher<C, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(Case.WithCapture.adapt(CC.new Pattern<>((c1, c2) -> Result.successWithCapture(c1.resultValue() + c2.resultValue()), Var(), Var()))).then(s -> s);
+
+        TestCase.assertEquals((int) matcher.match(new C(1, 2)), 3);
+    }
+
     //
     // Class definition
     //
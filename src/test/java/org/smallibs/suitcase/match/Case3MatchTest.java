@@ -4,7 +4,9 @@ import junit.framework.TestCase;
 import org.junit.Test;
 import org.smallibs.suitcase.cases.core.Case3;
 import org.smallibs.suitcase.cases.core.TypeCase;
+import org.smallibs.suitcase.utils.Tuple3;
 
+import static org.smallibs.suitcase.cases.core.Cases.Any;
 import static org.smallibs.suitcase.cases.core.Cases.Constant;
 import static org.smallibs.suitcase.cases.core.Cases.Var;
 import static org.smallibs.suitcase.utils.Functions.function;
@@ -85,6 +87,85 @@ public class Case3MatchTest {
         TestCase.assertTrue(matcher.match(new C(1, 2, 3)));
     }
 
+    @Test
+    public void shouldMatchVVVWithFunction() throws Exception {
+        Matcher<C, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(CC.$(Var(), Var(), Var())).then((a, b, c) -> a * 100 + b * 10 + c);
+
+        TestCase.assertEquals((int) matcher.match(new C(1, 2, 3)), 123);
+    }
+
+    @Test
+    public void shouldMatchVVVWithConditionAndFunction() throws Exception {
+        Matcher<C, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(CC.$(Var(), Var(), Var())).when(t -> t._1 > 1).then((a, b, c) -> a + b + c);
+        matcher.caseOf(CC.$(Var(), Var(), Var())).then((a, b, c) -> 0);
+
+        TestCase.assertEquals((int) matcher.match(new C(1, 2, 3)), 0);
+        TestCase.assertEquals((int) matcher.match(new C(2, 2, 3)), 7);
+    }
+
+    @Test
+    public void shouldCaptureFlatTuple() throws Exception {
+        final Tuple3<Integer, Integer, Integer> tuple = CC.$(Var(), Var(), Var()).unapply(new C(1, 2, 3)).get().resultValue();
+
+        TestCase.assertEquals(tuple, new Tuple3<>(1, 2, 3));
+    }
+
+    @Test
+    public void shouldStopExtractionAtFirstFailure() throws Exception {
+        final int[] calls = new int[3];
+        final Case3<C, C, Integer, Integer, Integer> counted = TypeCase.of(C.class,
+                p -> {
+                    calls[0]++;
+                    return p.i1;
+                },
+                p -> {
+                    calls[1]++;
+                    return p.i2;
+                },
+                p -> {
+                    calls[2]++;
+                    return p.i3;
+                });
+
+        Matcher<C, Integer> matcher = Matcher.create();
+        matcher.caseOf(counted.$(Var(), Constant(9), Var())).then(p -> 1);
+        matcher.caseOf(counted.$(Any(), Any(), Constant(3))).then(2);
+
+        TestCase.assertEquals((int) matcher.match(new C(1, 2, 3)), 2);
+        TestCase.assertEquals(calls[0], 2);
+        TestCase.assertEquals(calls[1], 2);
+        TestCase.assertEquals(calls[2], 1);
+    }
+
+    @Test
+    public void shouldExtractComponentsInDeclarationOrder() throws Exception {
+        final StringBuilder order = new StringBuilder();
+        final Case3<C, C, Integer, Integer, Integer> logged = TypeCase.of(C.class,
+                p -> {
+                    order.append(1);
+                    return p.i1;
+                },
+                p -> {
+                    order.append(2);
+                    return p.i2;
+                },
+                p -> {
+                    order.append(3);
+                    return p.i3;
+                });
+
+        Matcher<C, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(logged.$(Any(), Var(), Constant(3))).then(i -> i);
+
+        TestCase.assertEquals((int) matcher.match(new C(1, 2, 3)), 2);
+        TestCase.assertEquals(order.toString(), "123");
+    }
+
     //
     // Class definition
     //
@@ -22,8 +22,10 @@ package org.smallibs.suitcase.match;
 
 import junit.framework.TestCase;
 import org.junit.Test;
+import org.smallibs.suitcase.cases.Captures;
 import org.smallibs.suitcase.cases.core.Case6;
 import org.smallibs.suitcase.cases.core.TypeCase;
+import org.smallibs.suitcase.utils.Tuple5;
 
 import static org.smallibs.suitcase.cases.core.Cases.Constant;
 import static org.smallibs.suitcase.cases.core.Cases.Var;
@@ -611,6 +613,24 @@ public class Case6MatchTest {
         TestCase.assertTrue(matcher.match(new C(1, 2, 3, 4, 5, 6)));
     }
 
+    @Test
+    public void shouldMatchVVVVVVWithFunction() throws Exception {
+        Matcher<C, Boolean> matcher = Matcher.create();
+
+        matcher.caseOf(CC.$(Var(), Var(), Var(), Var(), Var(), Var())).then((a, b, c, d, e, f) -> a + b + c + d + e + f == 21);
+
+        TestCase.assertTrue(matcher.match(new C(1, 2, 3, 4, 5, 6)));
+    }
+
+    @Test
+    public void shouldCaptureFlatTuple() throws Exception {
+        final Captures captures = Captures.create();
+
+        TestCase.assertTrue(CC.$(Var(), Constant(2), Var(), Var(), Var(), Var()).unapply(new C(1, 2, 3, 4, 5, 6), captures));
+        TestCase.assertEquals(captures.pop(), new Tuple5<>(1, 3, 4, 5, 6));
+        TestCase.assertEquals(captures.size(), 0);
+    }
+
     //
     // Class definition
     //
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import org.smallibs.suitcase.cases.Case;
+import org.smallibs.suitcase.cases.core.CaseN;
+import org.smallibs.suitcase.cases.core.TypeCase;
+
+import java.util.function.Function;
+
+import static org.smallibs.suitcase.cases.core.Cases.Constant;
+
+/**
+ * Measures the cost of a product pattern depending on its arity, for a successful
+ * match and for a miss on the first component. It's not part of the test suite and
+ * can be run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.smallibs.suitcase.match.CaseNBenchmark
+ * </pre>
+ */
+public final class CaseNBenchmark {
+
+    private static final int MAXIMUM_ARITY = 16;
+    private static final int ITERATIONS = 2_000_000;
+    private static volatile Object sink;
+
+    private CaseNBenchmark() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) {
+        final int[] values = new int[MAXIMUM_ARITY];
+        for (int index = 0; index < MAXIMUM_ARITY; index++) {
+            values[index] = index;
+        }
+
+        System.out.println("arity\tsuccess (ns)\tmiss (ns)\tsuccess per component (ns)");
+        for (int arity = 1; arity <= MAXIMUM_ARITY; arity++) {
+            final Function<int[], ?>[] gets = new Function[arity];
+            final Case.WithoutCapture<?, ?>[] cases = new Case.WithoutCapture[arity];
+            for (int index = 0; index < arity; index++) {
+                final int position = index;
+                gets[index] = v -> v[position];
+                cases[index] = Constant(position);
+            }
+
+            final CaseN<Object, Object> product = TypeCase.of(int[].class, gets);
+            final CompiledMatcher<Object, Boolean> matcher = Matcher.<Object, Boolean>create().caseOf(product.$(cases)).then(true).compile();
+
+            final int[] miss = values.clone();
+            miss[0] = -1;
+
+            final double success = measure(matcher, values);
+            final double failure = measure(matcher, miss);
+            System.out.printf("%d\t%.1f\t%.1f\t%.2f%n", arity, success, failure, success / arity);
+        }
+    }
+
+    private static double measure(CompiledMatcher<Object, Boolean> matcher, Object value) {
+        for (int index = 0; index < ITERATIONS; index++) {
+            sink = matcher.matchOrElse(value, false);
+        }
+
+        final long start = System.nanoTime();
+        for (int index = 0; index < ITERATIONS; index++) {
+            sink = matcher.matchOrElse(value, false);
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+}
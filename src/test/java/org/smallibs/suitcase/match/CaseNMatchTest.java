@@ -0,0 +1,88 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.smallibs.suitcase.cases.core.CaseN;
+import org.smallibs.suitcase.cases.core.TypeCase;
+import org.smallibs.suitcase.utils.TupleN;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Constant;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+
+public class CaseNMatchTest {
+
+    private final CaseN<Object, Object> CC = TypeCase.of(C.class,
+            c -> c.i1, c -> c.i2, c -> c.i3, c -> c.i4, c -> c.i5, c -> c.i6, c -> c.i7, c -> c.i8);
+
+    @Test
+    public void shouldMatchConstants() throws Exception {
+        final Matcher<Object, Boolean> matcher = Matcher.create();
+
+        matcher.caseOf(CC.$(Constant(1), Constant(2), Any(), Any(), Any(), Any(), Any(), Constant(8))).then(true);
+        matcher.caseOf(Any()).then(false);
+
+        TestCase.assertEquals(CC.arity(), 8);
+        TestCase.assertTrue(matcher.match(new C(1, 2, 3, 4, 5, 6, 7, 8)));
+        TestCase.assertFalse(matcher.match(new C(1, 2, 3, 4, 5, 6, 7, 9)));
+        TestCase.assertFalse(matcher.match("C"));
+    }
+
+    @Test
+    public void shouldCaptureValues() throws Exception {
+        final Matcher<Object, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(CC.$(Var(), Constant(2), Any(), Any(), Any(), Any(), Var(), Var())).then(t -> t.<Integer>get(0) + t.<Integer>get(1) + t.<Integer>get(2));
+
+        TestCase.assertEquals((int) matcher.match(new C(1, 2, 3, 4, 5, 6, 7, 8)), 16);
+    }
+
+    @Test
+    public void shouldCaptureAllValuesWithoutCapture() throws Exception {
+        final TupleN tuple = CC.$(Any(), Any(), Any(), Any(), Any(), Any(), Any(), Constant(8)).unapply(new C(1, 2, 3, 4, 5, 6, 7, 8)).get().resultValue();
+
+        TestCase.assertEquals(tuple, new TupleN(1, 2, 3, 4, 5, 6, 7, 8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectWrongArity() throws Exception {
+        CC.$(Any(), Any());
+    }
+
+    //
+    // Class definition
+    //
+
+    public static class C {
+        private final int i1, i2, i3, i4, i5, i6, i7, i8;
+
+        public C(int i1, int i2, int i3, int i4, int i5, int i6, int i7, int i8) {
+            this.i1 = i1;
+            this.i2 = i2;
+            this.i3 = i3;
+            this.i4 = i4;
+            this.i5 = i5;
+            this.i6 = i6;
+            this.i7 = i7;
+            this.i8 = i8;
+        }
+    }
+}
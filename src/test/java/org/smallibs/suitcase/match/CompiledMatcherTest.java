@@ -0,0 +1,243 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+
+public class CompiledMatcherTest {
+
+    @Test
+    public void shouldMatchUsingCompiledMatcher() throws Exception {
+        final Matcher<Object, String> kind = Matcher.create();
+
+        kind.caseOf(Integer.class).then("integer");
+        kind.caseOf(String.class).then("string");
+        kind.caseOf(Any()).then("any");
+
+        final CompiledMatcher<Object, String> compiled = kind.compile();
+
+        TestCase.assertEquals(compiled.match(0), "integer");
+        TestCase.assertEquals(compiled.match("0"), "string");
+        TestCase.assertEquals(compiled.match(0L), "any");
+    }
+
+    @Test
+    public void shouldNotBeImpactedByRulesAddedAfterCompilation() throws Exception {
+        final Matcher<Integer, Boolean> isZero = Matcher.create();
+
+        isZero.caseOf(0).then(true);
+
+        final CompiledMatcher<Integer, Boolean> compiled = isZero.compile();
+
+        isZero.caseOf(Any()).then(false);
+
+        TestCase.assertFalse(isZero.match(1));
+        TestCase.assertFalse(compiled.unapply(1).isPresent());
+    }
+
+    @Test(expected = MatchingException.class)
+    public void shouldNotMatch() throws Exception {
+        final Matcher<Integer, Boolean> wrong = Matcher.create();
+
+        wrong.caseOf(1).then(true);
+
+        wrong.compile().match(2);
+    }
+
+    @Test
+    public void shouldUseCompiledMatcherAsPattern() throws Exception {
+        final Matcher<Integer, Integer> twice = Matcher.create();
+        twice.caseOf(Var()).then(i -> i * 2);
+
+        final Matcher<Integer, Integer> matcher = Matcher.create();
+        matcher.caseOf(Var(twice.compile())).then(i -> i + 1);
+
+        TestCase.assertEquals((int) matcher.match(2), 5);
+    }
+
+    @Test
+    public void shouldShareCompiledMatcherBetweenThreads() throws Exception {
+        final Matcher<Object, Integer> kind = Matcher.create();
+
+        kind.caseOf(Integer.class).then(1);
+        kind.caseOf(String.class).then(2);
+        kind.caseOf(Any()).then(0);
+
+        final CompiledMatcher<Object, Integer> compiled = kind.compile();
+        final int[] expected = {1, 2, 0};
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                final Object value = i % 3 == 0 ? i : i % 3 == 1 ? String.valueOf(i) : (double) i;
+                results.add(executor.submit(() -> compiled.match(value)));
+            }
+
+            for (int i = 0; i < 1000; i++) {
+                TestCase.assertEquals((int) results.get(i).get(), expected[i % 3]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldMatchAllObjects() throws Exception {
+        final Matcher<Object, Integer> kind = Matcher.create();
+
+        kind.caseOf(Integer.class).then(1);
+        kind.caseOf(String.class).then(2);
+
+        final CompiledMatcher<Object, Integer> compiled = kind.compile();
+
+        TestCase.assertEquals(compiled.matchAll(Arrays.asList(0, "0", 0L), 0), Arrays.asList(1, 2, 0));
+        TestCase.assertEquals(compiled.matchAll(Arrays.<Object>asList(0, "0")), Arrays.asList(1, 2));
+    }
+
+    @Test(expected = MatchingException.class)
+    public void shouldNotMatchAllObjects() throws Exception {
+        final Matcher<Object, Integer> kind = Matcher.create();
+
+        kind.caseOf(Integer.class).then(1);
+
+        kind.compile().matchAll(Arrays.asList(0, "0"));
+    }
+
+    @Test
+    public void shouldMatchAllObjectsInArray() throws Exception {
+        final Matcher<Object, Integer> kind = Matcher.create();
+
+        kind.caseOf(Integer.class).then(1);
+        kind.caseOf(String.class).then(2);
+
+        final Object[] in = {0, "0", 0L};
+        final Integer[] out = new Integer[in.length];
+
+        kind.compile().matchAll(in, out, 0);
+
+        TestCase.assertTrue(Arrays.equals(out, new Integer[]{1, 2, 0}));
+    }
+
+    @Test
+    public void shouldMatchAllObjectsInParallel() throws Exception {
+        final Matcher<Integer, Boolean> isEven = Matcher.create();
+
+        isEven.caseOf(Var()).when(i -> i % 2 == 0).then(true);
+
+        final List<Integer> in = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+        final List<Boolean> out = isEven.compile().matchAllParallel(in, false);
+
+        for (int i = 0; i < in.size(); i++) {
+            TestCase.assertEquals((boolean) out.get(i), i % 2 == 0);
+        }
+    }
+
+    @Test
+    public void shouldMatchAllObjectsInArrayInParallel() throws Exception {
+        final Matcher<Integer, Boolean> isEven = Matcher.create();
+
+        isEven.caseOf(Var()).when(i -> i % 2 == 0).then(true);
+
+        final Integer[] in = IntStream.range(0, 10000).boxed().toArray(Integer[]::new);
+        final Boolean[] out = new Boolean[in.length];
+
+        isEven.compile().matchAllParallel(in, out, false);
+
+        for (int i = 0; i < in.length; i++) {
+            TestCase.assertEquals((boolean) out[i], i % 2 == 0);
+        }
+    }
+
+    @Test
+    public void shouldMatchUsingMapping() throws Exception {
+        final Matcher<Object, Integer> kind = Matcher.create();
+
+        kind.caseOf(Integer.class).then(1);
+        kind.caseOf(String.class).then(2);
+
+        final List<Integer> result = Stream.of(0, "0", 0L).map(kind.mapping(0)).collect(Collectors.toList());
+
+        TestCase.assertEquals(result, Arrays.asList(1, 2, 0));
+    }
+
+    @Test
+    public void shouldReorderDisjointRulesByHitFrequency() throws Exception {
+        final Matcher<Object, String> matcher = Matcher.create();
+
+        matcher.caseOf(1).then("one");
+        matcher.caseOf(String.class).then("string");
+        matcher.caseOf(2).then("two");
+        matcher.caseOf(Any()).then("any");
+
+        final CompiledMatcher<Object, String> adaptive = matcher.compile().adaptive(10);
+
+        TestCase.assertTrue(adaptive.isAdaptive());
+        TestCase.assertEquals(adaptive.evaluationOrder(Integer.class), Arrays.asList(0, 2, 3));
+
+        for (int i = 0; i < 10; i++) {
+            TestCase.assertEquals(adaptive.match(2), "two");
+        }
+
+        TestCase.assertEquals(adaptive.evaluationOrder(Integer.class), Arrays.asList(2, 0, 3));
+        TestCase.assertEquals(adaptive.match(1), "one");
+        TestCase.assertEquals(adaptive.match(3), "any");
+        TestCase.assertFalse(matcher.compile().isAdaptive());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveAdaptationPeriod() throws Exception {
+        final Matcher<Object, String> matcher = Matcher.create();
+
+        matcher.caseOf(Any()).then("any");
+
+        matcher.compile().adaptive(0);
+    }
+
+    @Test
+    public void shouldNotReorderOverlappingRules() throws Exception {
+        final Matcher<Integer, String> matcher = Matcher.create();
+
+        matcher.caseOf(Var()).when(i -> i < -5).then(i -> "less than minus five");
+        matcher.caseOf(-2).then("minus two");
+
+        final CompiledMatcher<Integer, String> adaptive = matcher.compile().adaptive(10);
+
+        for (int i = 0; i < 10; i++) {
+            TestCase.assertEquals(adaptive.match(-2), "minus two");
+        }
+
+        TestCase.assertEquals(adaptive.evaluationOrder(Integer.class), Arrays.asList(0, 1));
+        TestCase.assertEquals(adaptive.match(-10), "less than minus five");
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.smallibs.suitcase.cases.ExprTest.Expr;
+
+import java.lang.invoke.MethodHandle;
+
+import static org.smallibs.suitcase.cases.ExprTest.Patterns.Add;
+import static org.smallibs.suitcase.cases.ExprTest.Patterns.Nat;
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Null;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+import static org.smallibs.suitcase.utils.Functions.function;
+
+public class GeneratedMatcherTest {
+
+    @Test
+    public void shouldMatchByTypeRespectingDeclarationOrder() throws Exception {
+        final Matcher<Object, String> kind = Matcher.create();
+
+        kind.caseOf(Null()).then("null");
+        kind.caseOf(Integer.class).then("integer");
+        kind.caseOf(Var()).when(o -> o instanceof String).then("string");
+        kind.caseOf(String.class).then("unreachable");
+        kind.caseOf(Any()).then("any");
+
+        final GeneratedMatcher<Object, String> generated = kind.generate();
+
+        TestCase.assertEquals(generated.match(null), "null");
+        TestCase.assertEquals(generated.match(0), "integer");
+        TestCase.assertEquals(generated.match("0"), "string");
+        TestCase.assertEquals(generated.match(0L), "any");
+    }
+
+    @Test
+    public void shouldMatchConstants() throws Exception {
+        final Matcher<Object, Integer> command = Matcher.create();
+
+        command.caseOf("start").then(1);
+        command.caseOf("stop").then(2);
+        command.caseOf("start").then(3);
+        command.caseOf(Var()).when(o -> o.equals("pause")).then(4);
+        command.caseOf("pause").then(5);
+        command.caseOf("resume").then(6);
+        command.caseOf("restart").then(7);
+
+        final GeneratedMatcher<Object, Integer> generated = command.generate();
+
+        TestCase.assertEquals((int) generated.match("start"), 1);
+        TestCase.assertEquals((int) generated.match("stop"), 2);
+        TestCase.assertEquals((int) generated.match("pause"), 4);
+        TestCase.assertEquals((int) generated.match("resume"), 6);
+        TestCase.assertEquals((int) generated.match("restart"), 7);
+        TestCase.assertEquals((int) generated.matchOrElse("unknown", 0), 0);
+        TestCase.assertFalse(generated.matchOptional(42).isPresent());
+    }
+
+    @Test
+    public void shouldEvalExpressionUsingMethodHandle() throws Throwable {
+        final Matcher<Expr, Integer> adder = Matcher.create();
+
+        adder.caseOf(Nat.$(Var())).then(n -> n);
+        adder.caseOf(Add.$(Var(adder), Var(adder))).then(function((e1, e2) -> e1 + e2));
+
+        final MethodHandle handle = adder.generate().handle();
+
+        TestCase.assertEquals((int) (Object) handle.invokeExact((Object) Expr.Add(Expr.Nat(1), Expr.Nat(3))), 4);
+    }
+
+    @Test(expected = MatchingException.class)
+    public void shouldNotMatchUsingMethodHandle() throws Throwable {
+        final Matcher<Integer, Boolean> wrong = Matcher.create();
+
+        wrong.caseOf(1).then(true);
+
+        final Object ignored = (Object) wrong.generate().handle().invokeExact((Object) 2);
+    }
+
+    @Test
+    public void shouldUseGeneratedMatcherAsPattern() throws Exception {
+        final Matcher<Integer, Integer> twice = Matcher.create();
+        twice.caseOf(Var()).then(i -> i * 2);
+
+        final Matcher<Integer, Integer> matcher = Matcher.create();
+        matcher.caseOf(Var(twice.generate())).then(i -> i + 1);
+
+        TestCase.assertEquals((int) matcher.match(2), 5);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.smallibs.suitcase.annotations.Patterns;
+import org.smallibs.suitcase.annotations.processor.PatternsProcessor;
+import org.smallibs.suitcase.utils.TupleN;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Constant;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+import static org.smallibs.suitcase.match.FigurePatterns.Circle;
+import static org.smallibs.suitcase.match.FigurePatterns.Point;
+import static org.smallibs.suitcase.match.FigurePatterns.Polygon;
+import static org.smallibs.suitcase.match.FigurePatterns.Rectangle;
+import static org.smallibs.suitcase.match.FigurePatterns.Scaled;
+import static org.smallibs.suitcase.utils.Functions.function;
+
+public class GeneratedPatternsTest {
+
+    @Test
+    public void shouldDeconstructFields() throws Exception {
+        final Matcher<Figure, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(Point().$()).then(0);
+        matcher.caseOf(Circle().$(Var())).then(r -> 3 * r * r);
+        matcher.caseOf(Rectangle().$(Var(), Var())).then(function((w, h) -> w * h));
+
+        TestCase.assertEquals((int) matcher.match(new Figure.Point()), 0);
+        TestCase.assertEquals((int) matcher.match(new Figure.Circle(2)), 12);
+        TestCase.assertEquals((int) matcher.match(new Figure.Rectangle(2, 3)), 6);
+    }
+
+    @Test
+    public void shouldDeconstructNestedPatterns() throws Exception {
+        final Matcher<Figure, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(Scaled().$(Constant(2), Circle().$(Var()))).then(r -> 2 * r);
+        matcher.caseOf(Scaled().$(Var(), Any())).then(f -> f);
+
+        TestCase.assertEquals((int) matcher.match(new Figure.Scaled(2, new Figure.Circle(3))), 6);
+        TestCase.assertEquals((int) matcher.match(new Figure.Scaled(2, new Figure.Point())), 2);
+        TestCase.assertEquals((int) matcher.match(new Figure.Scaled(4, new Figure.Circle(3))), 4);
+    }
+
+    @Test
+    public void shouldDeconstructManyFields() throws Exception {
+        final Matcher<Figure, TupleN> matcher = Matcher.create();
+
+        matcher.caseOf(Polygon().$(Var(), Constant(2), Any(), Any(), Any(), Any(), Var())).then(t -> t);
+
+        TestCase.assertEquals(matcher.match(new Figure.Polygon(1, 2, 3, 4, 5, 6, 7)), new TupleN(1, 7));
+        TestCase.assertFalse(matcher.matchOptional(new Figure.Polygon(1, 1, 3, 4, 5, 6, 7)).isPresent());
+    }
+
+    @Test
+    public void shouldRejectOtherClasses() throws Exception {
+        final Matcher<Object, Boolean> matcher = Matcher.create();
+
+        matcher.caseOf(Circle().$(Any())).then(true);
+        matcher.caseOf(Any()).then(false);
+
+        TestCase.assertTrue(matcher.match(new Figure.Circle(1)));
+        TestCase.assertFalse(matcher.match(new Figure.Point()));
+        TestCase.assertFalse(matcher.match("Circle"));
+    }
+
+    @Test
+    public void shouldReportClashingPatternNames() throws Exception {
+        final String source = String.join("\n",
+                "@org.smallibs.suitcase.annotations.Patterns",
+                "interface Tree {",
+                "    final class A implements Tree {",
+                "        final class Leaf implements Tree {",
+                "        }",
+                "    }",
+                "    final class B implements Tree {",
+                "        final class Leaf implements Tree {",
+                "        }",
+                "    }",
+                "}");
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path")),
+                null,
+                Collections.singletonList(new SimpleJavaFileObject(URI.create("string:///Tree.java"), JavaFileObject.Kind.SOURCE) {
+                    @Override
+                    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                        return source;
+                    }
+                }));
+        task.setProcessors(Collections.singletonList(new PatternsProcessor()));
+
+        TestCase.assertFalse(task.call());
+        TestCase.assertEquals(diagnostics.getDiagnostics().size(), 1);
+        TestCase.assertEquals(diagnostics.getDiagnostics().get(0).getMessage(null), "Pattern Leaf clashes with the pattern of Tree.A.Leaf");
+    }
+
+    //
+    // Class definition
+    //
+
+    @Patterns
+    interface Figure {
+        final class Point implements Figure {
+        }
+
+        final class Circle implements Figure {
+            final int radius;
+
+            Circle(int radius) {
+                this.radius = radius;
+            }
+        }
+
+        final class Rectangle implements Figure {
+            private final int width;
+            private final int height;
+
+            Rectangle(int width, int height) {
+                this.width = width;
+                this.height = height;
+            }
+
+            int getWidth() {
+                return width;
+            }
+
+            int height() {
+                return height;
+            }
+        }
+
+        final class Scaled implements Figure {
+            final int factor;
+            final Figure figure;
+
+            Scaled(int factor, Figure figure) {
+                this.factor = factor;
+                this.figure = figure;
+            }
+        }
+
+        final class Polygon implements Figure {
+            final int p1, p2, p3, p4, p5, p6, p7;
+
+            Polygon(int p1, int p2, int p3, int p4, int p5, int p6, int p7) {
+                this.p1 = p1;
+                this.p2 = p2;
+                this.p3 = p3;
+                this.p4 = p4;
+                this.p5 = p5;
+                this.p6 = p6;
+                this.p7 = p7;
+            }
+        }
+    }
+}
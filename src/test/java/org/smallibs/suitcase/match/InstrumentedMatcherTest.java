@@ -0,0 +1,133 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+
+public class InstrumentedMatcherTest {
+
+    @Test
+    public void shouldCountHitsAndMisses() throws Exception {
+        final Matcher<Object, String> kind = Matcher.create();
+
+        kind.caseOf(Integer.class).then("integer");
+        kind.caseOf(String.class).then("string");
+        kind.caseOf(Var()).when(o -> !(o instanceof Long)).then(o -> "other");
+
+        final CompiledMatcher<Object, String> instrumented = kind.instrument("org.smallibs.suitcase:type=Matcher,name=kind");
+
+        try {
+            TestCase.assertEquals(instrumented.match(1), "integer");
+            TestCase.assertEquals(instrumented.match(2), "integer");
+            TestCase.assertEquals(instrumented.match("1"), "string");
+            TestCase.assertEquals(instrumented.match(1.0), "other");
+            TestCase.assertEquals(instrumented.matchOrElse(1L, "long"), "long");
+
+            final MatcherMetrics metrics = instrumented.metrics().get();
+
+            TestCase.assertEquals(Arrays.toString(metrics.getAttempts()), "[2, 1, 2]");
+            TestCase.assertEquals(Arrays.toString(metrics.getHits()), "[2, 1, 1]");
+            TestCase.assertEquals(metrics.getMisses(), 1);
+            TestCase.assertEquals(metrics.getRules()[0], "Integer");
+
+            metrics.reset();
+
+            TestCase.assertEquals(Arrays.toString(metrics.getHits()), "[0, 0, 0]");
+            TestCase.assertEquals(metrics.getMisses(), 0);
+        } finally {
+            instrumented.metrics().get().unregister();
+        }
+    }
+
+    @Test
+    public void shouldCountHitsAndMissesWithoutCallingCallbacks() throws Exception {
+        final Matcher<Integer, Boolean> isBit = Matcher.create();
+
+        isBit.caseOf(0).then(true);
+        isBit.caseOf(1).then(true);
+
+        final ObjectName name = new ObjectName("org.smallibs.suitcase:type=Matcher,name=isDefinedAt");
+
+        try (CompiledMatcher<Integer, Boolean> instrumented = isBit.instrument(name.toString())) {
+            TestCase.assertTrue(instrumented.isDefinedAt(0));
+            TestCase.assertTrue(instrumented.isDefinedAt(1));
+            TestCase.assertFalse(instrumented.isDefinedAt(2));
+
+            final MatcherMetrics metrics = instrumented.metrics().get();
+
+            TestCase.assertEquals(Arrays.toString(metrics.getHits()), "[1, 1]");
+            TestCase.assertEquals(metrics.getMisses(), 1);
+            TestCase.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        }
+
+        TestCase.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    public void shouldPublishMetricsThroughJMX() throws Exception {
+        final Matcher<Integer, Boolean> isZero = Matcher.create();
+
+        isZero.caseOf(0).then(true);
+        isZero.caseOf(Any()).then(false);
+
+        final ObjectName name = new ObjectName("org.smallibs.suitcase:type=Matcher,name=isZero");
+        final CompiledMatcher<Integer, Boolean> instrumented = isZero.instrument(name.toString());
+
+        try {
+            for (int i = 0; i < 1000; i++) {
+                instrumented.match(i % 10);
+            }
+
+            final long[] hits = (long[]) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Hits");
+            final long[][] latencies = (long[][]) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "CallbackLatencies");
+
+            TestCase.assertEquals(Arrays.toString(hits), "[100, 900]");
+            TestCase.assertEquals(latencies.length, 2);
+        } finally {
+            instrumented.metrics().get().unregister();
+        }
+
+        TestCase.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    public void shouldNotInstrumentCompiledMatcher() throws Exception {
+        final Matcher<Integer, Boolean> isZero = Matcher.create();
+
+        isZero.caseOf(0).then(true);
+
+        TestCase.assertFalse(isZero.compile().metrics().isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMalformedName() throws Exception {
+        final Matcher<Integer, Boolean> isZero = Matcher.create();
+
+        isZero.caseOf(0).then(true);
+
+        isZero.instrument("isZero");
+    }
+}
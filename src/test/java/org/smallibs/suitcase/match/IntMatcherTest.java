@@ -0,0 +1,107 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+import static org.smallibs.suitcase.cases.lang.Lists.Cons;
+import static org.smallibs.suitcase.cases.lang.Lists.Empty;
+
+public class IntMatcherTest {
+
+    @Test
+    public void shouldMatchConstants() throws Exception {
+        final IntMatcher<String> command = IntMatcher.create();
+
+        command.caseOf("start").then(1);
+        command.caseOf("stop").then(2);
+        command.caseOf("pause").then(3);
+        command.caseOf(Any()).then(0);
+
+        TestCase.assertEquals(command.matchInt("stop"), 2);
+        TestCase.assertEquals(command.matchInt("restart"), 0);
+    }
+
+    @Test
+    public void shouldMatchWithConditions() throws Exception {
+        final boolean[] enabled = {false};
+        final IntMatcher<Integer> sign = IntMatcher.create();
+
+        sign.caseOf(0).when(() -> enabled[0]).then(42);
+        sign.caseOf(Var()).when(i -> i < 0).then(i -> -1);
+        sign.caseOf(Var()).when(i -> i > 0).then(i -> 1);
+
+        TestCase.assertEquals(sign.matchInt(-12), -1);
+        TestCase.assertEquals(sign.matchInt(12), 1);
+        TestCase.assertEquals(sign.matchIntOrElse(0, 0), 0);
+
+        enabled[0] = true;
+
+        TestCase.assertEquals(sign.matchInt(0), 42);
+    }
+
+    @Test
+    public void shouldComputeWithCaptures() throws Exception {
+        final IntMatcher<List<Integer>> head = IntMatcher.create();
+
+        head.caseOf(Empty()).then(0);
+        head.caseOf(Cons(Var(), Any())).then(i -> i);
+
+        TestCase.assertEquals(head.mapping(-1).applyAsInt(Arrays.asList(3, 2, 1)), 3);
+        TestCase.assertEquals(head.matchInt(Collections.emptyList()), 0);
+    }
+
+    @Test
+    public void shouldMatchTypes() throws Exception {
+        final IntMatcher<Object> kind = IntMatcher.create();
+
+        kind.caseOf(Integer.class).then(1);
+        kind.caseOf(String.class).then(2);
+
+        TestCase.assertEquals(kind.matchInt(1), 1);
+        TestCase.assertEquals(kind.matchInt("1"), 2);
+        TestCase.assertEquals(kind.matchIntOrElse(1L, -1), -1);
+    }
+
+    @Test(expected = MatchingException.class)
+    public void shouldNotMatch() throws Exception {
+        final IntMatcher<Integer> isZero = IntMatcher.create();
+
+        isZero.caseOf(0).then(1);
+
+        isZero.matchInt(1);
+    }
+
+    @Test
+    public void shouldUsePrimitiveConditionsInMatcher() throws Exception {
+        final Matcher<Integer, Boolean> isZero = Matcher.create();
+
+        isZero.caseOf(0).when(() -> true).then(true);
+        isZero.caseOf(Var()).when((Integer i) -> i % 2 == 0).then(false);
+
+        TestCase.assertTrue(isZero.match(0));
+        TestCase.assertFalse(isZero.match(2));
+    }
+}
@@ -21,7 +21,12 @@ package org.smallibs.suitcase.match;
 import junit.framework.TestCase;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import static org.smallibs.suitcase.cases.core.Cases.Any;
 import static org.smallibs.suitcase.cases.core.Cases.Null;
@@ -62,6 +67,34 @@ public class MatcherTest {
         TestCase.assertFalse(isInteger.match("0"));
     }
 
+    @Test
+    public void shouldMatchByTypeRespectingDeclarationOrder() throws Exception {
+        final Matcher<Object, String> kind = Matcher.create();
+
+        kind.caseOf(Integer.class).then("integer");
+        kind.caseOf(Var()).when(o -> o instanceof String).then("string");
+        kind.caseOf(String.class).then("unreachable");
+        kind.caseOf(Any()).then("any");
+
+        TestCase.assertEquals(kind.match(0), "integer");
+        TestCase.assertEquals(kind.match("0"), "string");
+        TestCase.assertEquals(kind.match(0L), "any");
+    }
+
+    @Test
+    public void shouldMatchByTypeWithRuleAddedAfterMatching() throws Exception {
+        final Matcher<Object, Boolean> isInteger = Matcher.create();
+
+        isInteger.caseOf(Integer.class).then(true);
+
+        TestCase.assertTrue(isInteger.match(0));
+
+        isInteger.caseOf(String.class).then(false);
+
+        TestCase.assertTrue(isInteger.match(0));
+        TestCase.assertFalse(isInteger.match("0"));
+    }
+
     @Test
     public void shouldMatchIntegerByValue() throws Exception {
         final Matcher<Integer, Boolean> isZero = Matcher.create();
@@ -73,6 +106,30 @@ public class MatcherTest {
         TestCase.assertFalse(isZero.match(1));
     }
 
+    @Test
+    public void shouldMatchConstantsRespectingDeclarationOrder() throws Exception {
+        final Matcher<Object, Integer> command = Matcher.create();
+
+        command.caseOf("start").then(1);
+        command.caseOf("stop").then(2);
+        command.caseOf("start").then(3);
+        command.caseOf(Var()).when(o -> o.equals("pause")).then(4);
+        command.caseOf("pause").then(5);
+        command.caseOf("resume").then(6);
+        command.caseOf("stop").then(7);
+        command.caseOf("restart").when(() -> false).then(8);
+        command.caseOf("restart").then(9);
+        command.caseOf(Any()).then(0);
+
+        TestCase.assertEquals((int) command.match("start"), 1);
+        TestCase.assertEquals((int) command.match("stop"), 2);
+        TestCase.assertEquals((int) command.match("pause"), 4);
+        TestCase.assertEquals((int) command.match("resume"), 6);
+        TestCase.assertEquals((int) command.match("restart"), 9);
+        TestCase.assertEquals((int) command.match("unknown"), 0);
+        TestCase.assertEquals((int) command.match(42), 0);
+    }
+
     @Test
     public void shouldMatchIntegerByValueAndSuppliers() throws Exception {
         final Matcher<Integer, Boolean> isZero = Matcher.create();
@@ -95,6 +152,23 @@ public class MatcherTest {
         TestCase.assertFalse(isZero.match(1));
     }
 
+    @Test
+    public void shouldMatchWithBoxedAndPrimitiveConditions() throws Exception {
+        final Function<Integer, Boolean> isZero = i -> i == 0;
+        final Predicate<Integer> isOne = i -> i == 1;
+        final Supplier<Boolean> always = () -> true;
+
+        final Matcher<Integer, String> matcher = Matcher.create();
+
+        matcher.caseOf(Var()).when(isZero).then(i -> "zero");
+        matcher.caseOf(Var()).when(isOne).then(i -> "one");
+        matcher.caseOf(Any()).when(always).then("other");
+
+        TestCase.assertEquals(matcher.match(0), "zero");
+        TestCase.assertEquals(matcher.match(1), "one");
+        TestCase.assertEquals(matcher.match(2), "other");
+    }
+
     @Test
     public void shouldMatchIntegerByValueAndConditionalAndConstant() throws Exception {
         final Matcher<Integer, Boolean> isZero = Matcher.create();
@@ -136,6 +210,40 @@ public class MatcherTest {
         wrong.match(2);
     }
 
+    @Test
+    public void shouldNotMatchWithDefaultValue() throws Exception {
+        final Matcher<Integer, Boolean> isOne = Matcher.create();
+
+        isOne.caseOf(1).then(true);
+
+        TestCase.assertTrue(isOne.matchOrElse(1, false));
+        TestCase.assertFalse(isOne.matchOrElse(2, false));
+    }
+
+    @Test
+    public void shouldNotMatchWithEmptyResult() throws Exception {
+        final Matcher<Integer, Boolean> isOne = Matcher.create();
+
+        isOne.caseOf(1).then(true);
+
+        TestCase.assertEquals(isOne.matchOptional(1), Optional.of(true));
+        TestCase.assertEquals(isOne.matchOptional(2), Optional.empty());
+    }
+
+    @Test
+    public void shouldNotCaptureStackTraceWhenMatchFails() throws Exception {
+        final Matcher<Integer, Boolean> wrong = Matcher.create();
+
+        wrong.caseOf(1).then(true);
+
+        try {
+            wrong.match(2);
+            TestCase.fail();
+        } catch (MatchingException e) {
+            TestCase.assertEquals(e.getStackTrace().length, 0);
+        }
+    }
+
     @Test(expected = ClassCastException.class)
     public void shouldNotMatchWhenErrorComeFromRule() throws Exception {
         final Matcher<Object, String> wrong = Matcher.create();
@@ -144,4 +252,137 @@ public class MatcherTest {
 
         wrong.match(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldMatchUsingOrElse() throws Exception {
+        final Matcher<Object, String> numbers = Matcher.create();
+        numbers.caseOf(Integer.class).then("integer");
+
+        final Matcher<Object, String> strings = Matcher.create();
+        strings.caseOf(String.class).then("string");
+        strings.caseOf(Any()).then("any");
+
+        final Matcher<Object, String> kind = numbers.orElse(strings);
+
+        TestCase.assertEquals(kind.match(1), "integer");
+        TestCase.assertEquals(kind.match("1"), "string");
+        TestCase.assertEquals(kind.match(1L), "any");
+        TestCase.assertEquals(kind.compile().rules().size(), 3);
+    }
+
+    @Test
+    public void shouldFlattenNestedMatchers() throws Exception {
+        final Matcher<Integer, String> small = Matcher.create();
+        small.caseOf(1).then("one");
+        small.caseOf(2).then("two");
+        small.caseOf(3).then("three");
+
+        final Matcher<Integer, String> number = Matcher.create();
+        number.caseOf(Var(small.compile())).then(s -> "small " + s);
+        number.caseOf(small.compile()).then("never");
+        number.caseOf(Any()).then("other");
+
+        TestCase.assertEquals(number.match(2), "small two");
+        TestCase.assertEquals(number.match(4), "other");
+        TestCase.assertEquals(number.compile().rules().size(), 7);
+        TestCase.assertEquals(number.analyze().shadowedRules(), Arrays.asList(3, 4, 5));
+    }
+
+    @Test
+    public void shouldNotFlattenNestedMatchersWithCondition() throws Exception {
+        final Matcher<Integer, String> small = Matcher.create();
+        small.caseOf(1).then("one");
+        small.caseOf(Any()).then("any");
+
+        final Matcher<Integer, String> number = Matcher.create();
+        number.caseOf(Var(small)).when(s -> s.equals("any")).then(s -> "not one");
+        number.caseOf(Any()).then("one");
+
+        TestCase.assertEquals(number.match(1), "one");
+        TestCase.assertEquals(number.match(2), "not one");
+        TestCase.assertEquals(number.compile().rules().size(), 2);
+    }
+
+    @Test
+    public void shouldCheckDefinitionWithoutCallback() throws Exception {
+        final int[] calls = new int[1];
+        final Matcher<Integer, String> matcher = Matcher.create();
+
+        matcher.caseOf(1).then(() -> {
+            calls[0]++;
+            return "one";
+        });
+        matcher.caseOf(Var()).when(i -> i != null && i > 10).then(i -> {
+            calls[0]++;
+            return "big";
+        });
+
+        TestCase.assertTrue(matcher.isDefinedAt(1));
+        TestCase.assertTrue(matcher.test(20));
+        TestCase.assertFalse(matcher.isDefinedAt(5));
+        TestCase.assertFalse(matcher.isDefinedAt(null));
+        TestCase.assertEquals(calls[0], 0);
+    }
+
+    @Test
+    public void shouldNotCallNestedCallbackWhenUsedAsPattern() throws Exception {
+        final int[] calls = new int[1];
+        final Matcher<Integer, String> small = Matcher.create();
+        small.caseOf(1).then(() -> {
+            calls[0]++;
+            return "one";
+        });
+
+        final Matcher<Integer, String> number = Matcher.create();
+        number.caseOf(small).when(() -> true).then("small");
+        number.caseOf(Any()).then("other");
+
+        TestCase.assertEquals(number.match(1), "small");
+        TestCase.assertEquals(number.match(2), "other");
+        TestCase.assertEquals(calls[0], 0);
+    }
+
+    @Test
+    public void shouldLiftMatcher() throws Exception {
+        final Matcher<Integer, String> matcher = Matcher.create();
+        matcher.caseOf(1).then("one");
+
+        TestCase.assertEquals(matcher.lift().apply(1), Optional.of("one"));
+        TestCase.assertEquals(matcher.lift().apply(2), Optional.empty());
+    }
+
+    @Test
+    public void shouldMatchForwardReferencedMatcher() throws Exception {
+        final Matcher<Object, String> inner = Matcher.create();
+
+        final Matcher<Object, String> outer = Matcher.create();
+        outer.caseOf(inner).then("inner");
+        outer.caseOf(Var(inner)).then(s -> "inner " + s);
+        outer.caseOf(Any()).then("other");
+
+        inner.caseOf(Integer.class).then("int");
+
+        TestCase.assertEquals(outer.match(1), "inner");
+        TestCase.assertEquals(outer.match("1"), "other");
+        TestCase.assertEquals(outer.compile().rules().size(), 3);
+    }
+
+    @Test
+    public void shouldNotCallNestedCallbacksWithoutCapture() throws Exception {
+        final int[] calls = {0};
+
+        final Matcher<Integer, String> inner = Matcher.create();
+        inner.caseOf(1).then(() -> {
+            calls[0] += 1;
+            return "one";
+        });
+
+        final Matcher<Integer, String> outer = Matcher.create();
+        outer.caseOf(inner.compile()).then("inner");
+        outer.caseOf(Any()).then("other");
+
+        TestCase.assertEquals(outer.match(1), "inner");
+        TestCase.assertEquals(outer.match(2), "other");
+        TestCase.assertEquals(calls[0], 0);
+    }
+}
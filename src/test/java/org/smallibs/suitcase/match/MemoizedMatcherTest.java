@@ -0,0 +1,158 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.smallibs.suitcase.utils.Pair;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+import static org.smallibs.suitcase.cases.lang.Pairs.Pair;
+import static org.smallibs.suitcase.cases.lang.Strings.Regex;
+
+public class MemoizedMatcherTest {
+
+    @Test
+    public void shouldMatchOnceEachObject() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Matcher<String, String> matcher = Matcher.create();
+
+        matcher.caseOf(Regex("[0-9]+")).then(() -> {
+            calls.incrementAndGet();
+            return "number";
+        });
+
+        final MemoizedMatcher<String, String> memoized = matcher.memoize(100);
+
+        for (int i = 0; i < 10; i++) {
+            TestCase.assertEquals(memoized.match("42"), "number");
+            TestCase.assertEquals(memoized.matchOrElse("a", "other"), "other");
+        }
+
+        TestCase.assertEquals(calls.get(), 1);
+        TestCase.assertEquals(memoized.missCount(), 2);
+        TestCase.assertEquals(memoized.hitCount(), 18);
+        TestCase.assertEquals(memoized.size(), 2);
+    }
+
+    @Test(expected = MatchingException.class)
+    public void shouldKeepFailures() throws Exception {
+        final Matcher<Integer, Boolean> isZero = Matcher.create();
+
+        isZero.caseOf(0).then(true);
+
+        final MemoizedMatcher<Integer, Boolean> memoized = isZero.memoize(10);
+
+        TestCase.assertFalse(memoized.matchOptional(1).isPresent());
+        memoized.match(1);
+    }
+
+    @Test
+    public void shouldKeepNullResults() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Matcher<Integer, String> matcher = Matcher.create();
+
+        matcher.caseOf(Any()).then(() -> {
+            calls.incrementAndGet();
+            return null;
+        });
+
+        final MemoizedMatcher<Integer, String> memoized = matcher.memoize(10);
+
+        TestCase.assertNull(memoized.match(1));
+        TestCase.assertNull(memoized.match(1));
+        TestCase.assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void shouldUsePairsAsKeys() throws Exception {
+        final Matcher<Pair<Integer, String>, String> matcher = Matcher.create();
+
+        matcher.caseOf(Pair(1, Var())).then(s -> s);
+
+        final MemoizedMatcher<Pair<Integer, String>, String> memoized = matcher.memoize(10);
+
+        TestCase.assertEquals(memoized.match(new Pair<>(1, "a")), "a");
+        TestCase.assertEquals(memoized.match(new Pair<>(1, "a")), "a");
+        TestCase.assertEquals(memoized.hitCount(), 1);
+        TestCase.assertEquals(new Pair<>(1, "a"), new Pair<>(1, "a"));
+        TestCase.assertEquals(new Pair<>(1, "a").hashCode(), new Pair<>(1, "a").hashCode());
+    }
+
+    @Test
+    public void shouldBoundTheCache() throws Exception {
+        final Matcher<Integer, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(Var()).then(i -> i + 1);
+
+        final MemoizedMatcher<Integer, Integer> memoized = matcher.memoize(100);
+
+        for (int i = 0; i < 10000; i++) {
+            TestCase.assertEquals(memoized.match(i).intValue(), i + 1);
+        }
+
+        TestCase.assertTrue(memoized.size() <= 100);
+        TestCase.assertEquals(memoized.evictionCount(), 10000 - memoized.size());
+
+        memoized.invalidateAll();
+
+        TestCase.assertEquals(memoized.size(), 0);
+    }
+
+    @Test
+    public void shouldKeepFrequentlyUsedObjects() throws Exception {
+        final Matcher<Integer, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(Var()).then(i -> i + 1);
+
+        final MemoizedMatcher<Integer, Integer> memoized = matcher.memoize(10);
+
+        memoized.match(-1);
+        memoized.match(-1);
+
+        for (int i = 0; i < 1000; i++) {
+            memoized.match(i);
+        }
+
+        final long hits = memoized.hitCount();
+        memoized.match(-1);
+
+        TestCase.assertEquals(memoized.hitCount(), hits + 1);
+    }
+
+    @Test
+    public void shouldBoundTheCacheWeight() throws Exception {
+        final Matcher<String, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(Var()).then(String::length);
+
+        final MemoizedMatcher<String, Integer> memoized = matcher.compile().memoize(10, String::length);
+
+        memoized.match("12345");
+        memoized.match("123456");
+
+        TestCase.assertEquals(memoized.size(), 1);
+
+        memoized.match("12345678901");
+
+        TestCase.assertEquals(memoized.size(), 1);
+    }
+}
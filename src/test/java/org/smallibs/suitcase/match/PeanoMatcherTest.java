@@ -55,4 +55,48 @@ public class PeanoMatcherTest {
         TestCase.assertEquals((int) minus2.match(2).get(), 0);
         TestCase.assertEquals((int) minus2.match(3).get(), 1);
     }
+
+    @Test
+    public void shouldCheckEvenInConstantStack() throws Exception {
+        final RecursiveMatcher<Integer, Boolean> isEven = Matcher.recursive(self -> {
+            self.caseOf(Zero()).then(self.done(true));
+            self.caseOf(Succ(Zero())).then(self.done(false));
+            self.caseOf(Succ(Succ(Var()))).then(self::continueWith);
+        });
+
+        TestCase.assertEquals((boolean) isEven.match(1_000_000), true);
+        TestCase.assertEquals((boolean) isEven.match(1_000_001), false);
+    }
+
+    @Test
+    public void shouldCountInConstantStack() throws Exception {
+        final RecursiveMatcher<Integer, Integer> count = Matcher.recursive(self -> {
+            self.caseOf(Zero()).then(self.done(0));
+            self.caseOf(Succ(Var())).then(i -> self.continueWith(i, r -> r + 1));
+        });
+
+        TestCase.assertEquals((int) count.match(100_000), 100_000);
+    }
+
+    @Test
+    public void shouldComputeFibonacciWithSteps() throws Exception {
+        final RecursiveMatcher<Integer, Integer> fibonacci = Matcher.recursive(self -> {
+            self.caseOf(Zero()).then(self.done(0));
+            self.caseOf(Succ(Zero())).then(self.done(1));
+            self.caseOf(Succ(Succ(Var()))).then(i ->
+                    self.continueWithStep(i + 1, a -> self.continueWith(i, b -> a + b))
+            );
+        });
+
+        TestCase.assertEquals((int) fibonacci.match(20), 6765);
+    }
+
+    @Test
+    public void shouldFailWhenAStepIsNotMatched() throws Exception {
+        final RecursiveMatcher<Integer, Integer> count = Matcher.recursive(self -> {
+            self.caseOf(Succ(Var())).then(i -> self.continueWith(i, r -> r + 1));
+        });
+
+        TestCase.assertFalse(count.matchOptional(10).isPresent());
+    }
 }
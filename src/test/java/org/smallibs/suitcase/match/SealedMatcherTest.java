@@ -0,0 +1,152 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.smallibs.suitcase.cases.core.CaseN;
+import org.smallibs.suitcase.cases.core.TypeCase;
+import org.smallibs.suitcase.utils.TupleN;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.smallibs.suitcase.cases.core.Cases.Any;
+import static org.smallibs.suitcase.cases.core.Cases.Constant;
+import static org.smallibs.suitcase.cases.core.Cases.Var;
+
+public class SealedMatcherTest {
+
+    /**
+     * Records and sealed types cannot be declared with the Java 8 baseline so the model is
+     * compiled when the tests run on Java 17 or later.
+     */
+    private static final String MODEL = "package model;\n" +
+            "public sealed interface Shape {\n" +
+            "    record Circle(int radius) implements Shape {}\n" +
+            "    record Square(int side) implements Shape {}\n" +
+            "    record Group(Shape left, Shape right) implements Shape {}\n" +
+            "    final class Empty implements Shape {}\n" +
+            "}\n";
+
+    private static ClassLoader model;
+
+    @BeforeClass
+    public static void compileModel() throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return;
+        }
+
+        final Path directory = Files.createTempDirectory("model");
+        final Path source = Files.createDirectories(directory.resolve("model")).resolve("Shape.java");
+        Files.write(source, MODEL.getBytes(StandardCharsets.UTF_8));
+
+        if (compiler.run(null, null, new ByteArrayOutputStream(), "-d", directory.toString(), source.toString()) == 0) {
+            model = new URLClassLoader(new URL[]{directory.toUri().toURL()});
+        }
+    }
+
+    @Test
+    public void shouldDeconstructRecords() throws Exception {
+        Assume.assumeNotNull(model);
+
+        final CaseN<Object, Object> circle = TypeCase.ofRecord(type("Circle"));
+        final CaseN<Object, Object> group = TypeCase.ofRecord(type("Group"));
+        final Matcher<Object, Integer> matcher = Matcher.create();
+
+        matcher.caseOf(circle.$(Var())).then(t -> t.<Integer>get(0));
+        matcher.caseOf(group.$(circle.$(Var()), circle.$(Var()))).then(t -> t.<TupleN>get(0).<Integer>get(0) + t.<TupleN>get(1).<Integer>get(0));
+        matcher.caseOf(Any()).then(-1);
+
+        TestCase.assertEquals(circle.arity(), 1);
+        TestCase.assertEquals((int) matcher.match(circle(2)), 2);
+        TestCase.assertEquals((int) matcher.match(group(circle(2), circle(3))), 5);
+        TestCase.assertEquals((int) matcher.match(group(circle(2), square(3))), -1);
+    }
+
+    @Test
+    public void shouldDispatchSealedHierarchy() throws Exception {
+        Assume.assumeNotNull(model);
+
+        final CaseN<Object, Object> circle = TypeCase.ofRecord(type("Circle"));
+        final CaseN<Object, Object> group = TypeCase.ofRecord(type("Group"));
+        final Matcher<Object, String> matcher = Matcher.create();
+
+        matcher.caseOf(circle.$(Constant(0))).then("point");
+        matcher.caseOf(type("Circle")).then("circle");
+        matcher.caseOf(group.$(Any(), Any())).then("group");
+        matcher.caseOf(Any()).then("other");
+
+        final CompiledMatcher<Object, String> sealed = matcher.sealed(type("Shape"));
+        final GeneratedMatcher<Object, String> generated = sealed.generate();
+
+        for (Object object : Arrays.asList(circle(0), circle(1), square(1), group(circle(0), square(1)), empty(), "circle")) {
+            TestCase.assertEquals(sealed.matchOrElse(object, null), matcher.matchOrElse(object, null));
+            TestCase.assertEquals(generated.matchOrElse(object, null), matcher.matchOrElse(object, null));
+        }
+
+        TestCase.assertEquals(sealed.match(circle(1)), "circle");
+        TestCase.assertEquals(generated.match(group(empty(), empty())), "group");
+        TestCase.assertEquals(sealed.evaluationOrder(type("Square")), Arrays.asList(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonSealedRoot() throws Exception {
+        Matcher.<Object, Integer>create().sealed(Object.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonRecord() throws Exception {
+        TypeCase.ofRecord(String.class);
+    }
+
+    //
+    // Model instances
+    //
+
+    private static Class<?> type(String name) throws ClassNotFoundException {
+        return Class.forName(name.equals("Shape") ? "model.Shape" : "model.Shape$" + name, true, model);
+    }
+
+    private static Object circle(int radius) throws Exception {
+        return type("Circle").getConstructor(int.class).newInstance(radius);
+    }
+
+    private static Object square(int side) throws Exception {
+        return type("Square").getConstructor(int.class).newInstance(side);
+    }
+
+    private static Object group(Object left, Object right) throws Exception {
+        return type("Group").getConstructor(type("Shape"), type("Shape")).newInstance(left, right);
+    }
+
+    private static Object empty() throws Exception {
+        return type("Empty").getConstructor().newInstance();
+    }
+}
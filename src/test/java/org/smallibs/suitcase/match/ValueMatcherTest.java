@@ -0,0 +1,117 @@
+/*
+ * Copyright (C)2015 D. Plaindoux.
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 2, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; see the file COPYING.  If not, write to
+ * the Free Software Foundation, 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+
+package org.smallibs.suitcase.match;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.smallibs.suitcase.cases.lang.IntCase.AllBits;
+import static org.smallibs.suitcase.cases.lang.IntCase.AnyOf;
+import static org.smallibs.suitcase.cases.lang.IntCase.Between;
+import static org.smallibs.suitcase.cases.lang.IntCase.Mask;
+import static org.smallibs.suitcase.cases.lang.IntCase.NoBits;
+
+public class ValueMatcherTest {
+
+    @Test
+    public void shouldClassifyStatusCodes() throws Exception {
+        final IntValueMatcher<String> matcher = IntValueMatcher.create();
+
+        matcher.caseOf(200).then("ok");
+        matcher.caseOf(201).then("created");
+        matcher.caseOf(204).then("no content");
+        matcher.caseOf(AnyOf(301, 302, 307)).then("redirect");
+        matcher.caseOf(Between(400, 499)).then(code -> "client error " + code);
+        matcher.caseOf(Between(500, 599)).when(code -> code != 501).then("server error");
+
+        TestCase.assertEquals(matcher.match(200), "ok");
+        TestCase.assertEquals(matcher.match(204), "no content");
+        TestCase.assertEquals(matcher.match(302), "redirect");
+        TestCase.assertEquals(matcher.match(404), "client error 404");
+        TestCase.assertEquals(matcher.match(503), "server error");
+        TestCase.assertEquals(matcher.matchOrElse(501, "unknown"), "unknown");
+        TestCase.assertEquals(matcher.matchOptional(202), Optional.empty());
+    }
+
+    @Test
+    public void shouldKeepFirstRuleWithinConstantTables() throws Exception {
+        final IntValueMatcher<String> dense = IntValueMatcher.create();
+        final IntValueMatcher<String> sparse = IntValueMatcher.create();
+
+        for (int value = 0; value < 10; value++) {
+            dense.caseOf(value).then("dense " + value);
+            sparse.caseOf(value * 1000).then("sparse " + value);
+        }
+        dense.caseOf(5).then("never");
+        sparse.caseOf(5000).then("never");
+
+        TestCase.assertEquals(dense.match(5), "dense 5");
+        TestCase.assertEquals(dense.matchOrElse(-1, "none"), "none");
+        TestCase.assertEquals(dense.matchOrElse(10, "none"), "none");
+        TestCase.assertEquals(sparse.match(5000), "sparse 5");
+        TestCase.assertEquals(sparse.matchOrElse(5, "none"), "none");
+    }
+
+    @Test
+    public void shouldMatchBitMasks() throws Exception {
+        final IntValueMatcher<String> flags = IntValueMatcher.create();
+
+        flags.caseOf(AllBits(0b11)).then("read write");
+        flags.caseOf(Mask(0b11, 0b01)).then("read");
+        flags.caseOf(NoBits(0b11)).then("none");
+
+        TestCase.assertEquals(flags.match(0b111), "read write");
+        TestCase.assertEquals(flags.match(0b101), "read");
+        TestCase.assertEquals(flags.match(0b100), "none");
+        TestCase.assertEquals(flags.matchOptional(0b10), Optional.empty());
+    }
+
+    @Test
+    public void shouldMatchLongValues() throws Exception {
+        final LongValueMatcher<String> matcher = LongValueMatcher.create();
+
+        matcher.caseOf(Long.MIN_VALUE).then("min");
+        matcher.caseOf(0L).then("zero");
+        matcher.caseOf(Long.MAX_VALUE).then("max");
+        matcher.caseOf(value -> value > 0).then("positive");
+
+        TestCase.assertEquals(matcher.match(Long.MIN_VALUE), "min");
+        TestCase.assertEquals(matcher.match(Long.MAX_VALUE), "max");
+        TestCase.assertEquals(matcher.match(12L), "positive");
+        TestCase.assertEquals(matcher.mapping("negative").apply(-12L), "negative");
+    }
+
+    @Test
+    public void shouldMatchDoubleValues() throws Exception {
+        final DoubleValueMatcher<String> matcher = DoubleValueMatcher.create();
+
+        matcher.caseOf(Double.NaN).then("nan");
+        matcher.caseOf(0.0).then("zero");
+        matcher.caseOf(-0.0).then("negative zero");
+        matcher.caseOf(value -> value < 0).then("negative");
+
+        TestCase.assertEquals(matcher.match(Double.NaN), "nan");
+        TestCase.assertEquals(matcher.match(0.0), "zero");
+        TestCase.assertEquals(matcher.match(-0.0), "negative zero");
+        TestCase.assertEquals(matcher.match(-1.5), "negative");
+        TestCase.assertEquals(matcher.matchOrElse(1.5, "positive"), "positive");
+    }
+}